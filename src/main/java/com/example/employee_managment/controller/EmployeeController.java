@@ -1,31 +1,38 @@
 package com.example.employee_managment.controller;
 
 import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.repository.EmployeeCursor;
+import com.example.employee_managment.repository.EmployeeSort;
+import com.example.employee_managment.repository.EmployeeSpecifications;
 import com.example.employee_managment.service.EmployeeService;
+import com.example.employee_managment.service.export.CsvOutput;
+import com.example.employee_managment.service.export.CsvRowEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.Valid;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.ArrayList;
-import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 
 @RestController
@@ -36,6 +43,16 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Rows fetched per database round trip when streaming an export
+    private static final int STREAM_BATCH_SIZE = 1000;
+    
+    // Page size of a search given a page but no size, and the largest page it returns; use stream=true for more
+    private static final int DEFAULT_LIST_PAGE_SIZE = 100;
+    private static final int MAX_LIST_PAGE_SIZE = 1000;
+    
     // CREATE - POST /api/employees
     @PostMapping
     public ResponseEntity<Employee> createEmployee(@Valid @RequestBody Employee employee) {
@@ -48,18 +65,26 @@ public class EmployeeController {
     }
     
     // READ ALL - GET /api/employees (with pagination)
+    // totalMode=exact counts every time, estimated uses the cached employee count and none skips totals
+    // (estimated and none read one extra row to tell whether there is a next page instead of counting)
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllEmployees(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "exact") String totalMode) {
         
         // Validate page size to prevent abuse
         if (size > 100) {
             size = 100;
         }
         
+        String mode = totalMode.toLowerCase();
+        if (!mode.equals("exact") && !mode.equals("estimated") && !mode.equals("none")) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        
         // Convert from 1-based to 0-based for Spring Data
         int zeroBasedPage = page - 1;
         
@@ -68,15 +93,59 @@ public class EmployeeController {
             Sort.by(sortBy).descending() : 
             Sort.by(sortBy).ascending());
         
-        Page<Employee> employeePage = employeeService.getAllEmployeesPaginated(pageable);
-        
         Map<String, Object> response = new HashMap<>();
-        response.put("employees", employeePage.getContent());
+        if (mode.equals("exact")) {
+            Page<Employee> employeePage = employeeService.getAllEmployeesPaginated(pageable);
+            response.put("employees", employeePage.getContent());
+            response.put("totalItems", employeePage.getTotalElements());
+            response.put("totalPages", employeePage.getTotalPages());
+            response.put("hasNext", employeePage.hasNext());
+        } else {
+            Slice<Employee> employeeSlice = employeeService.findEmployees(EmployeeSpecifications.all(), pageable);
+            response.put("employees", employeeSlice.getContent());
+            response.put("hasNext", employeeSlice.hasNext());
+            if (mode.equals("estimated")) {
+                // Never less than the rows this page proves exist
+                long seen = pageable.getOffset() + employeeSlice.getNumberOfElements() + (employeeSlice.hasNext() ? 1 : 0);
+                long totalItems = Math.max(employeeService.getEstimatedEmployeeCount(), seen);
+                response.put("totalItems", totalItems);
+                response.put("totalPages", (totalItems + size - 1) / size);
+            }
+        }
         response.put("currentPage", page); // Return 1-based page number to user
-        response.put("totalItems", employeePage.getTotalElements());
-        response.put("totalPages", employeePage.getTotalPages());
-        response.put("hasNext", employeePage.hasNext());
-        response.put("hasPrevious", employeePage.hasPrevious());
+        response.put("hasPrevious", zeroBasedPage > 0);
+        response.put("pageSize", size);
+        response.put("totalMode", mode);
+        
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+    
+    // READ ALL WITH CURSOR - GET /api/employees?cursor={next}
+    // Keyset paging: pass an empty cursor for the first page, then the "next" token of each response.
+    // sortBy/sortDir only apply to the first page; the cursor keeps the order it was created with.
+    @GetMapping(params = "cursor")
+    public ResponseEntity<Map<String, Object>> getEmployeesByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        
+        size = Math.max(1, Math.min(size, 100));
+        
+        EmployeeCursor position;
+        try {
+            position = cursor.isEmpty() ? EmployeeCursor.first(sortBy, sortDir) : EmployeeCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        
+        Slice<Employee> employeeSlice = employeeService.getEmployeesAfter(position, size);
+        List<Employee> employees = employeeSlice.getContent();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("employees", employees);
+        response.put("next", employeeSlice.hasNext() ? position.after(employees.get(employees.size() - 1)).encode() : null);
+        response.put("hasNext", employeeSlice.hasNext());
         response.put("pageSize", size);
         
         return new ResponseEntity<>(response, HttpStatus.OK);
@@ -120,32 +189,126 @@ public class EmployeeController {
         }
     }
     
-    // SEARCH BY DEPARTMENT - GET /api/employees/department/{department}
+    // SEARCH BY DEPARTMENT - GET /api/employees/department/{department}[?page={page}&size={size}]
     @GetMapping("/department/{department}")
-    public ResponseEntity<List<Employee>> getEmployeesByDepartment(@PathVariable String department) {
-        List<Employee> employees = employeeService.getEmployeesByDepartment(department);
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+    public ResponseEntity<List<Employee>> getEmployeesByDepartment(
+            @PathVariable String department,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (page == null && size == null) {
+            return new ResponseEntity<>(employeeService.getEmployeesByDepartment(department), HttpStatus.OK);
+        }
+        Pageable pageable = listPage(page, size);
+        return listResponse(employeeService.getEmployeesByDepartment(department, pageable), pageable);
+    }
+    
+    // STREAM BY DEPARTMENT - GET /api/employees/department/{department}?stream=true
+    @GetMapping(value = "/department/{department}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamEmployeesByDepartment(@PathVariable String department) {
+        return streamEmployees(EmployeeSpecifications.hasDepartment(department));
     }
     
-    // SEARCH BY POSITION - GET /api/employees/position/{position}
+    // SEARCH BY POSITION - GET /api/employees/position/{position}[?page={page}&size={size}]
     @GetMapping("/position/{position}")
-    public ResponseEntity<List<Employee>> getEmployeesByPosition(@PathVariable String position) {
-        List<Employee> employees = employeeService.getEmployeesByPosition(position);
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+    public ResponseEntity<List<Employee>> getEmployeesByPosition(
+            @PathVariable String position,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (page == null && size == null) {
+            return new ResponseEntity<>(employeeService.getEmployeesByPosition(position), HttpStatus.OK);
+        }
+        Pageable pageable = listPage(page, size);
+        return listResponse(employeeService.getEmployeesByPosition(position, pageable), pageable);
+    }
+    
+    // STREAM BY POSITION - GET /api/employees/position/{position}?stream=true
+    @GetMapping(value = "/position/{position}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamEmployeesByPosition(@PathVariable String position) {
+        return streamEmployees(EmployeeSpecifications.hasPosition(position));
     }
     
-    // SEARCH BY NAME - GET /api/employees/search?name={name}
+    // SEARCH BY NAME - GET /api/employees/search?name={name}[&page={page}&size={size}]
     @GetMapping("/search")
-    public ResponseEntity<List<Employee>> searchEmployeesByName(@RequestParam String name) {
-        List<Employee> employees = employeeService.searchEmployeesByName(name);
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+    public ResponseEntity<List<Employee>> searchEmployeesByName(
+            @RequestParam String name,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (page == null && size == null) {
+            return new ResponseEntity<>(employeeService.searchEmployeesByName(name), HttpStatus.OK);
+        }
+        Pageable pageable = listPage(page, size);
+        return listResponse(employeeService.searchEmployeesByName(name, pageable), pageable);
+    }
+    
+    // STREAM NAME SEARCH - GET /api/employees/search?name={name}&stream=true
+    @GetMapping(value = "/search", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamEmployeesByName(@RequestParam String name) {
+        return streamEmployees(EmployeeSpecifications.nameContains(name));
     }
     
-    // SEARCH BY SALARY - GET /api/employees/salary?min={minSalary}
+    // SEARCH BY SALARY - GET /api/employees/salary?min={minSalary}[&page={page}&size={size}]
     @GetMapping("/salary")
-    public ResponseEntity<List<Employee>> getEmployeesWithSalaryGreaterThan(@RequestParam Double min) {
-        List<Employee> employees = employeeService.getEmployeesWithSalaryGreaterThan(min);
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+    public ResponseEntity<List<Employee>> getEmployeesWithSalaryGreaterThan(
+            @RequestParam Double min,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (page == null && size == null) {
+            return new ResponseEntity<>(employeeService.getEmployeesWithSalaryGreaterThan(min), HttpStatus.OK);
+        }
+        Pageable pageable = listPage(page, size);
+        return listResponse(employeeService.getEmployeesWithSalaryGreaterThan(min, pageable), pageable);
+    }
+    
+    // STREAM BY SALARY - GET /api/employees/salary?min={minSalary}&stream=true
+    @GetMapping(value = "/salary", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamEmployeesWithSalaryGreaterThan(@RequestParam Double min) {
+        return streamEmployees(EmployeeSpecifications.salaryGreaterThan(min));
+    }
+    
+    // Helper method to page a search once page or size is given (without either, a search returns every match
+    // as it always did): 1-based page, default 1; size capped, default 100; in id order so pages do not overlap
+    private Pageable listPage(Integer page, Integer size) {
+        int pageNumber = page != null ? page : 1;
+        int pageSize = size != null ? size : DEFAULT_LIST_PAGE_SIZE;
+        return PageRequest.of(Math.max(0, pageNumber - 1), Math.max(1, Math.min(pageSize, MAX_LIST_PAGE_SIZE)), Sort.by("id"));
+    }
+    
+    // Helper method to return one page of a search; a Link header points to the next page if there is one
+    private ResponseEntity<List<Employee>> listResponse(Slice<Employee> employees, Pageable pageable) {
+        HttpHeaders headers = new HttpHeaders();
+        if (employees.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", pageable.getPageNumber() + 2)
+                    .replaceQueryParam("size", pageable.getPageSize())
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return new ResponseEntity<>(employees.getContent(), headers, HttpStatus.OK);
+    }
+    
+    // Helper method to stream every match as newline-delimited JSON. Rows are read in keyset batches,
+    // each its own short query, so a large result holds neither the heap nor a connection for long
+    private ResponseEntity<StreamingResponseBody> streamEmployees(Specification<Employee> filters) {
+        ObjectWriter writer = objectMapper.writerFor(Employee.class);
+        
+        StreamingResponseBody body = outputStream -> {
+            EmployeeCursor cursor = EmployeeCursor.first("id", "asc");
+            while (true) {
+                Slice<Employee> batch = employeeService.findEmployeesAfter(filters, cursor, STREAM_BATCH_SIZE);
+                for (Employee employee : batch.getContent()) {
+                    outputStream.write(writer.writeValueAsBytes(employee));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                
+                if (!batch.hasNext()) {
+                    break;
+                }
+                cursor = cursor.after(batch.getContent().get(batch.getNumberOfElements() - 1));
+            }
+        };
+        
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     // EXPORT TO CSV - GET /api/employees/export/csv
@@ -179,16 +342,15 @@ public class EmployeeController {
             // Convert from 1-based to 0-based for Spring Data
             int zeroBasedPage = page - 1;
             
-            Pageable pageable = PageRequest.of(zeroBasedPage, size, 
-                sortDir.equalsIgnoreCase("desc") ? 
-                Sort.by(sortBy).descending() : 
-                Sort.by(sortBy).ascending());
+            Pageable pageable = PageRequest.of(zeroBasedPage, size, EmployeeSort.of(sortBy, sortDir));
             
-            // Get filtered employees
-            List<Employee> employees = getFilteredEmployees(department, position, minSalary, maxSalary, name, email, pageable);
+            // Filter, sort and page in a single query that only reads the selected columns
+            CsvRowEncoder encoder = CsvRowEncoder.compile(fields);
+            Specification<Employee> filters = EmployeeSpecifications.withFilters(department, position, minSalary, maxSalary, name, email);
+            List<Object[]> rows = employeeService.findEmployeeColumns(filters, encoder.getProperties(), pageable).getContent();
             
             // Generate CSV content with selected fields
-            byte[] csvContent = generateCsvContentWithFields(employees, fields);
+            byte[] csvContent = generateCsvContentWithFields(rows, encoder);
             
             // Set headers for file download
             HttpHeaders headers = new HttpHeaders();
@@ -206,140 +368,99 @@ public class EmployeeController {
         }
     }
     
-    // Helper method to get filtered employees
-    private List<Employee> getFilteredEmployees(String department, String position, 
-                                              Double minSalary, Double maxSalary, 
-                                              String name, String email, Pageable pageable) {
-        
-        // If no filters, return paginated results
-        if (department == null && position == null && minSalary == null && 
-            maxSalary == null && name == null && email == null) {
-            return employeeService.getAllEmployeesPaginated(pageable).getContent();
-        }
+    // STREAM CSV EXPORT - GET /api/employees/export/csv?stream=true
+    // Rows are written to the response as they are read, so there is no row cap and
+    // memory per download stays constant. size <= 0 exports every matching row.
+    @GetMapping(value = "/export/csv", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamEmployeesToCsv(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "0") int size,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String position,
+            @RequestParam(required = false) Double minSalary,
+            @RequestParam(required = false) Double maxSalary,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(defaultValue = "id,firstName,lastName,email,department,position,salary,hireDate") String fields,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
         
-        // Apply filters
-        List<Employee> filteredEmployees = new ArrayList<>();
+        EmployeeCursor cursor = EmployeeCursor.first(sortBy, sortDir);
+        Specification<Employee> filters = EmployeeSpecifications.withFilters(department, position, minSalary, maxSalary, name, email);
+        CsvRowEncoder encoder = CsvRowEncoder.compile(fields);
         
-        if (email != null) {
-            // Single employee by email
-            Optional<Employee> employee = employeeService.getEmployeeByEmail(email);
-            if (employee.isPresent()) {
-                filteredEmployees.add(employee.get());
-            }
-        } else if (name != null) {
-            // Search by name
-            filteredEmployees = employeeService.searchEmployeesByName(name);
-        } else if (department != null && position != null) {
-            // Filter by department and position
-            filteredEmployees = employeeService.findByDepartmentAndPosition(department, position);
-        } else if (department != null) {
-            // Filter by department
-            filteredEmployees = employeeService.getEmployeesByDepartment(department);
-        } else if (position != null) {
-            // Filter by position
-            filteredEmployees = employeeService.getEmployeesByPosition(position);
-        } else if (minSalary != null || maxSalary != null) {
-            // Filter by salary range
-            if (minSalary != null) {
-                filteredEmployees = employeeService.getEmployeesWithSalaryGreaterThan(minSalary);
-            }
-            // Apply max salary filter if specified
-            if (maxSalary != null) {
-                filteredEmployees = filteredEmployees.stream()
-                    .filter(emp -> emp.getSalary() != null && emp.getSalary() <= maxSalary)
-                    .collect(Collectors.toList());
-            }
-        }
+        long limit = size > 0 ? size : Long.MAX_VALUE;
+        long offset = size > 0 ? (long) Math.max(0, page - 1) * size : 0;
         
-        // Apply pagination manually for filtered results
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), filteredEmployees.size());
+        StreamingResponseBody body = outputStream -> {
+            CsvOutput out = new CsvOutput(outputStream);
+            encoder.writeHeader(out);
+            writeEmployeesInBatches(out, encoder, filters, cursor, offset, limit);
+            out.flush();
+        };
         
-        if (start < filteredEmployees.size()) {
-            return filteredEmployees.subList(start, end);
-        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment",
+                generateFileName(department, position, minSalary, maxSalary, name, email));
         
-        return new ArrayList<>();
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
     
-    // Helper method to generate CSV content with selected fields
-    private byte[] generateCsvContentWithFields(List<Employee> employees, String fields) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Writer writer = new OutputStreamWriter(baos, StandardCharsets.UTF_8);
-        
-        // Parse selected fields
-        String[] selectedFields = fields.split(",");
-        
-        // Write CSV header with selected fields
-        StringBuilder header = new StringBuilder();
-        for (int i = 0; i < selectedFields.length; i++) {
-            if (i > 0) header.append(",");
-            header.append(getFieldDisplayName(selectedFields[i].trim()));
+    // Helper method to read the table one keyset batch at a time, flushing after each batch
+    private void writeEmployeesInBatches(CsvOutput out, CsvRowEncoder encoder, Specification<Employee> filters,
+                                         EmployeeCursor cursor, long offset, long limit) throws IOException {
+        // The id and sort key of each row are read along with the exported columns to seek past it
+        List<String> properties = new ArrayList<>(encoder.getProperties());
+        for (String key : List.of("id", cursor.getProperty())) {
+            if (!properties.contains(key)) {
+                properties.add(key);
+            }
         }
-        header.append("\n");
-        writer.write(header.toString());
+        int idIndex = properties.indexOf("id");
+        int keyIndex = properties.indexOf(cursor.getProperty());
+        Sort sort = cursor.toSort();
         
-        // Write data rows
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        
-        for (Employee employee : employees) {
-            StringBuilder row = new StringBuilder();
-            for (int i = 0; i < selectedFields.length; i++) {
-                if (i > 0) row.append(",");
-                String fieldValue = getFieldValue(employee, selectedFields[i].trim(), dateFormatter, dateTimeFormatter);
-                row.append("\"").append(escapeCsvField(fieldValue)).append("\"");
+        // OFFSET only locates the last row before an explicit page; the page itself is read by seeking past it
+        if (offset > 0) {
+            List<Object[]> before = employeeService.findEmployeeColumns(filters, properties,
+                    PageRequest.of((int) Math.min(offset - 1, Integer.MAX_VALUE), 1, sort)).getContent();
+            if (before.isEmpty()) {
+                return;
             }
-            row.append("\n");
-            writer.write(row.toString());
+            cursor = cursor.after((Long) before.get(0)[idIndex], before.get(0)[keyIndex]);
         }
         
-        writer.flush();
-        writer.close();
-        return baos.toByteArray();
-    }
-    
-    // Helper method to get field display name
-    private String getFieldDisplayName(String field) {
-        switch (field.toLowerCase()) {
-            case "id": return "ID";
-            case "firstname": return "First Name";
-            case "lastname": return "Last Name";
-            case "email": return "Email";
-            case "phonenumber": return "Phone Number";
-            case "dateofbirth": return "Date of Birth";
-            case "hiredate": return "Hire Date";
-            case "salary": return "Salary";
-            case "position": return "Position";
-            case "department": return "Department";
-            case "createdat": return "Created At";
-            case "updatedat": return "Updated At";
-            default: return field;
+        long remaining = limit;
+        while (remaining > 0) {
+            Slice<Object[]> batch = employeeService.findEmployeeColumns(filters.and(cursor.toSpecification()), properties,
+                    PageRequest.of(0, (int) Math.min(remaining, STREAM_BATCH_SIZE), sort));
+            List<Object[]> rows = batch.getContent();
+            for (Object[] row : rows) {
+                encoder.writeRow(out, row);
+            }
+            out.flush();
+            
+            remaining -= rows.size();
+            if (!batch.hasNext()) {
+                break;
+            }
+            Object[] last = rows.get(rows.size() - 1);
+            cursor = cursor.after((Long) last[idIndex], last[keyIndex]);
         }
     }
     
-    // Helper method to get field value
-    private String getFieldValue(Employee employee, String field, DateTimeFormatter dateFormatter, DateTimeFormatter dateTimeFormatter) {
-        switch (field.toLowerCase()) {
-            case "id": return String.valueOf(employee.getId());
-            case "firstname": return employee.getFirstName();
-            case "lastname": return employee.getLastName();
-            case "email": return employee.getEmail();
-            case "phonenumber": return employee.getPhoneNumber();
-            case "dateofbirth": 
-                return employee.getDateOfBirth() != null ? employee.getDateOfBirth().format(dateFormatter) : "";
-            case "hiredate": 
-                return employee.getHireDate() != null ? employee.getHireDate().format(dateFormatter) : "";
-            case "salary": 
-                return employee.getSalary() != null ? String.format("%.2f", employee.getSalary()) : "";
-            case "position": return employee.getPosition();
-            case "department": return employee.getDepartment();
-            case "createdat": 
-                return employee.getCreatedAt() != null ? employee.getCreatedAt().format(dateTimeFormatter) : "";
-            case "updatedat": 
-                return employee.getUpdatedAt() != null ? employee.getUpdatedAt().format(dateTimeFormatter) : "";
-            default: return "";
+    // Helper method to generate CSV content with selected fields
+    private byte[] generateCsvContentWithFields(List<Object[]> rows, CsvRowEncoder encoder) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        
+        try (CsvOutput out = new CsvOutput(baos)) {
+            encoder.writeHeader(out);
+            for (Object[] row : rows) {
+                encoder.writeRow(out, row);
+            }
         }
+        return baos.toByteArray();
     }
     
     // Helper method to generate filename based on filters
@@ -363,10 +484,4 @@ public class EmployeeController {
         fileName.append("_").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"))).append(".csv");
         return fileName.toString();
     }
-    
-    // Helper method to escape CSV fields
-    private String escapeCsvField(String field) {
-        if (field == null) return "";
-        return field.replace("\"", "\"\""); // Escape quotes by doubling them
-    }
-} 
\ No newline at end of file
+}
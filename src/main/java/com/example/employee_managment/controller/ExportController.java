@@ -2,21 +2,44 @@ package com.example.employee_managment.controller;
 
 import com.example.employee_managment.dto.ExportRequest;
 import com.example.employee_managment.dto.ExportResponse;
+import com.example.employee_managment.dto.ExportSummary;
 import com.example.employee_managment.model.ExportHistory;
+import com.example.employee_managment.model.ExportPayload;
 import com.example.employee_managment.repository.ExportHistoryRepository;
+import com.example.employee_managment.repository.ExportPayloadRepository;
+import com.example.employee_managment.service.ExportJobScheduler;
 import com.example.employee_managment.service.ExportJobService;
+import com.example.employee_managment.service.export.ExportArtifactStore;
+import com.example.employee_managment.service.export.ExportEventPublisher;
+import com.example.employee_managment.service.export.ExportProgress;
+import com.example.employee_managment.service.export.ExportProgressRegistry;
+import com.example.employee_managment.service.export.ExportRequestKey;
+import com.example.employee_managment.service.export.ExportState;
+import com.example.employee_managment.service.export.ExportStatusRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/exports")
@@ -26,9 +49,27 @@ public class ExportController {
     @Autowired
     private ExportJobService exportJobService;
     
+    @Autowired
+    private ExportJobScheduler exportJobScheduler;
+    
     @Autowired
     private ExportHistoryRepository exportHistoryRepository;
     
+    @Autowired
+    private ExportPayloadRepository exportPayloadRepository;
+    
+    @Autowired
+    private ExportArtifactStore artifactStore;
+    
+    @Autowired
+    private ExportProgressRegistry progressRegistry;
+    
+    @Autowired
+    private ExportEventPublisher eventPublisher;
+    
+    @Autowired
+    private ExportStatusRegistry statusRegistry;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     /**
@@ -37,9 +78,41 @@ public class ExportController {
      */
     @PostMapping
     public ResponseEntity<ExportResponse> submitExportRequest(@RequestBody ExportRequest exportRequest) {
+        String referenceId = null;
         try {
+            // Identical requests share one export: reuse a completed one built from the
+            // current data (not for deltas), or attach to the one already queued or running
+            String requestKey = ExportRequestKey.of(exportRequest);
+            Optional<ExportHistory> reusable = exportJobService.findReusableExport(requestKey,
+                    exportRequest.getMode() != ExportRequest.ExportMode.DELTA);
+            if (reusable.isPresent()) {
+                return reusedExportResponse(reusable.get().getReferenceId(), reusable.get().getStatus());
+            }
+            
+            // Reject instead of queueing unbounded work
+            ExportJobScheduler.Admission admission = exportJobScheduler.admit(exportRequest.getUserId());
+            if (admission != ExportJobScheduler.Admission.ACCEPTED) {
+                String message = admission == ExportJobScheduler.Admission.USER_LIMIT_REACHED
+                        ? "Too many exports queued for this user. Please retry later."
+                        : "Export queue is full. Please retry later.";
+                HttpHeaders headers = new HttpHeaders();
+                headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(exportJobScheduler.getRetryAfterSeconds()));
+                
+                return new ResponseEntity<>(
+                    new ExportResponse(null, ExportHistory.ExportStatus.FAILED, message),
+                    headers,
+                    HttpStatus.TOO_MANY_REQUESTS
+                );
+            }
+            
             // Generate unique reference ID
-            String referenceId = exportJobService.generateReferenceId();
+            referenceId = exportJobService.generateReferenceId();
+            
+            // A duplicate submitted at the same moment registers first; attach to it
+            String running = exportJobService.registerInFlight(requestKey, referenceId);
+            if (running != null) {
+                return reusedExportResponse(running, ExportHistory.ExportStatus.PENDING);
+            }
             
             // Convert filters to JSON string
             String filtersJson = objectMapper.writeValueAsString(exportRequest);
@@ -55,12 +128,11 @@ public class ExportController {
             if (exportRequest.getUserId() != null) {
                 exportHistory.setUserId(exportRequest.getUserId());
             }
+            exportHistory.setRequestHash(requestKey);
             
-            // Save to database
+            // Save to database; a worker on any instance picks it up from there
             exportHistoryRepository.save(exportHistory);
-            
-            // Start background processing
-            exportJobService.processExportJob(referenceId);
+            exportJobScheduler.submitted();
             
             // Return response with reference ID
             ExportResponse response = new ExportResponse(
@@ -78,6 +150,9 @@ public class ExportController {
             return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
             
         } catch (Exception e) {
+            if (referenceId != null) {
+                exportJobService.releaseInFlight(referenceId);
+            }
             ExportResponse errorResponse = new ExportResponse(
                 null,
                 ExportHistory.ExportStatus.FAILED,
@@ -87,23 +162,43 @@ public class ExportController {
         }
     }
     
+    // Response for a request served by an existing export
+    private ResponseEntity<ExportResponse> reusedExportResponse(String referenceId, ExportHistory.ExportStatus status) {
+        if (status == ExportHistory.ExportStatus.COMPLETED) {
+            return new ResponseEntity<>(
+                new ExportResponse(referenceId, status, "An identical export of the current data is ready. Use reference ID to download."),
+                HttpStatus.OK
+            );
+        }
+        return new ResponseEntity<>(
+            new ExportResponse(referenceId, status, "An identical export is already in progress. Use reference ID to check status."),
+            HttpStatus.ACCEPTED
+        );
+    }
+    
     /**
      * Check export status and download if ready
      * GET /api/exports/{referenceId}
+     * 
+     * Exports running on this instance, or finished here recently, are answered
+     * from the status registry; only the others are read from the database.
      */
     @GetMapping("/{referenceId}")
-    public ResponseEntity<?> checkExportStatus(@PathVariable String referenceId) {
+    public ResponseEntity<?> checkExportStatus(
+            @PathVariable String referenceId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            Optional<ExportHistory> exportHistory = exportHistoryRepository.findByReferenceId(referenceId);
+            Optional<ExportState> exportState = statusRegistry.get(referenceId)
+                    .or(() -> exportHistoryRepository.findByReferenceId(referenceId).map(ExportState::of));
             
-            if (exportHistory.isEmpty()) {
+            if (exportState.isEmpty()) {
                 return new ResponseEntity<>(
                     new ExportResponse(null, ExportHistory.ExportStatus.FAILED, "Export not found"),
                     HttpStatus.NOT_FOUND
                 );
             }
             
-            ExportHistory export = exportHistory.get();
+            ExportState export = exportState.get();
             
             switch (export.getStatus()) {
                 case PENDING:
@@ -111,7 +206,7 @@ public class ExportController {
                         new ExportResponse(referenceId, export.getStatus(), "Export is queued for processing"),
                         HttpStatus.OK
                     );
-                    
+                
                 case PROCESSING:
                     ExportResponse processingResponse = new ExportResponse(
                         referenceId, 
@@ -120,12 +215,58 @@ public class ExportController {
                     );
                     processingResponse.setCreatedAt(export.getCreatedAt());
                     // Note: startedAt is not part of the response DTO
+                    applyProgress(processingResponse, export);
                     return new ResponseEntity<>(processingResponse, HttpStatus.OK);
-                    
+                
                 case COMPLETED:
-                    // Return CSV file for download
-                    if (export.getCsvData() != null && !export.getCsvData().isEmpty()) {
-                        byte[] csvBytes = export.getCsvData().getBytes(StandardCharsets.UTF_8);
+                    // Removed by the retention sweeper; the history row is all that is left
+                    if (export.getExpiredAt() != null) {
+                        ExportResponse expiredResponse = new ExportResponse(
+                            referenceId,
+                            export.getStatus(),
+                            "Export expired and is no longer available. Please submit it again."
+                        );
+                        expiredResponse.setTotalRecords(export.getTotalRecords());
+                        expiredResponse.setCreatedAt(export.getCreatedAt());
+                        return new ResponseEntity<>(expiredResponse, HttpStatus.GONE);
+                    }
+                    
+                    // Stream the stored artifact straight from disk
+                    if (export.getFilePath() != null) {
+                        Resource artifact = artifactStore.load(export.getFilePath());
+                        boolean compressed = artifactStore.isCompressed(export.getFilePath());
+                        
+                        HttpHeaders headers = new HttpHeaders();
+                        headers.setContentType(MediaType.parseMediaType("text/csv"));
+                        headers.setContentDispositionFormData("attachment", "export_" + referenceId + ".csv");
+                        if (compressed) {
+                            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+                        }
+                        
+                        // Compressed artifacts go out as stored to clients accepting gzip, decompressed on the fly otherwise
+                        if (compressed && !acceptsGzip(acceptEncoding)) {
+                            if (export.getChecksum() != null) {
+                                headers.setETag("W/\"" + export.getChecksum() + "\"");
+                            }
+                            InputStream csv = new GZIPInputStream(artifact.getInputStream(), 64 * 1024);
+                            return new ResponseEntity<>(new InputStreamResource(csv), headers, HttpStatus.OK);
+                        }
+                        
+                        if (compressed) {
+                            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                        }
+                        headers.setContentLength(artifact.contentLength());
+                        if (export.getChecksum() != null) {
+                            headers.setETag("\"" + export.getChecksum() + "\"");
+                        }
+                        
+                        return new ResponseEntity<>(artifact, headers, HttpStatus.OK);
+                    }
+                    
+                    // Legacy exports keep their CSV inline in export_payload
+                    Optional<String> csvData = exportPayloadRepository.findById(export.getId()).map(ExportPayload::getCsvData);
+                    if (csvData.isPresent() && !csvData.get().isEmpty()) {
+                        byte[] csvBytes = csvData.get().getBytes(StandardCharsets.UTF_8);
                         
                         HttpHeaders headers = new HttpHeaders();
                         headers.setContentType(MediaType.parseMediaType("text/csv"));
@@ -149,7 +290,7 @@ public class ExportController {
                             HttpStatus.OK
                         );
                     }
-                    
+                
                 case FAILED:
                     ExportResponse failedResponse = new ExportResponse(
                         referenceId, 
@@ -159,7 +300,7 @@ public class ExportController {
                     failedResponse.setCreatedAt(export.getCreatedAt());
                     // Note: completedAt is not part of the response DTO
                     return new ResponseEntity<>(failedResponse, HttpStatus.OK);
-                    
+                
                 default:
                     return new ResponseEntity<>(
                         new ExportResponse(referenceId, export.getStatus(), "Unknown status"),
@@ -176,28 +317,144 @@ public class ExportController {
     }
     
     /**
-     * Get all export history for a user
-     * GET /api/exports/user/{userId}
+     * Whether an Accept-Encoding header allows gzip with a non-zero quality. An explicit gzip entry
+     * takes precedence over *, wherever it appears (RFC 9110 section 12.5.3), so "gzip;q=0, *" refuses it.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                gzipQuality = quality(parts);
+            } else if (name.equals("*")) {
+                wildcardQuality = quality(parts);
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+    
+    // q parameter of an Accept-Encoding entry; 1 when absent, 0 when it cannot be parsed
+    private static double quality(String[] parts) {
+        double quality = 1;
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    quality = Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    quality = 0;
+                }
+            }
+        }
+        return quality;
+    }
+    
+    /**
+     * Watch an export over Server-Sent Events instead of polling its status
+     * GET /api/exports/{referenceId}/events
+     * 
+     * Sends the current state first, then a "status" event on every state change
+     * and "progress" events while it runs; the stream ends once it is COMPLETED or FAILED.
+     */
+    @GetMapping(value = "/{referenceId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> watchExport(@PathVariable String referenceId) {
+        return eventPublisher.subscribe(referenceId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Fill in rows processed, percent complete and an ETA based on the job's measured rows/sec.
+     * Jobs running on this instance report live counters; others report the last flushed ones.
+     */
+    private void applyProgress(ExportResponse response, ExportState export) {
+        long processed;
+        long expected;
+        double rowsPerSecond;
+        
+        Optional<ExportProgress> live = progressRegistry.get(export.getReferenceId());
+        if (live.isPresent()) {
+            processed = live.get().getRowsWritten();
+            expected = live.get().getExpectedRows();
+            rowsPerSecond = live.get().getRowsPerSecond();
+        } else {
+            processed = export.getProcessedRecords() != null ? export.getProcessedRecords() : 0;
+            expected = export.getExpectedRecords() != null ? export.getExpectedRecords() : -1;
+            long elapsedMillis = export.getStartedAt() != null
+                    ? Duration.between(export.getStartedAt(), LocalDateTime.now()).toMillis() : 0;
+            rowsPerSecond = elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : 0;
+        }
+        
+        response.setProcessedRecords(processed);
+        if (expected >= 0) {
+            response.setTotalRecords(expected);
+        }
+        response.setPercentComplete(ExportProgress.percentComplete(processed, expected));
+        response.setRowsPerSecond(Math.round(rowsPerSecond * 10) / 10.0);
+        
+        Long secondsRemaining = ExportProgress.estimatedSecondsRemaining(processed, expected, rowsPerSecond);
+        if (secondsRemaining != null) {
+            response.setEstimatedCompletion(LocalDateTime.now().plusSeconds(secondsRemaining));
+        }
+    }
+    
+    /**
+     * Get export history for a user, newest first
+     * GET /api/exports/user/{userId}?page=1&size=20
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ExportHistory>> getUserExportHistory(@PathVariable String userId) {
-        List<ExportHistory> exports = exportHistoryRepository.findByUserId(userId);
-        return new ResponseEntity<>(exports, HttpStatus.OK);
+    public ResponseEntity<Map<String, Object>> getUserExportHistory(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<ExportSummary> exports = exportHistoryRepository.findSummariesByUserId(userId, historyPage(page, size));
+        return new ResponseEntity<>(historyResponse(exports, page), HttpStatus.OK);
     }
     
     /**
-     * Get all export history
-     * GET /api/exports
+     * Get all export history, newest first
+     * GET /api/exports?page=1&size=20
      */
     @GetMapping
-    public ResponseEntity<List<ExportHistory>> getAllExportHistory() {
-        List<ExportHistory> exports = exportHistoryRepository.findAll();
-        return new ResponseEntity<>(exports, HttpStatus.OK);
+    public ResponseEntity<Map<String, Object>> getAllExportHistory(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<ExportSummary> exports = exportHistoryRepository.findSummariesBy(historyPage(page, size));
+        return new ResponseEntity<>(historyResponse(exports, page), HttpStatus.OK);
+    }
+    
+    // 1-based page of at most 100 exports
+    private static Pageable historyPage(int page, int size) {
+        return PageRequest.of(Math.max(page, 1) - 1, Math.min(Math.max(size, 1), 100),
+                Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+    }
+    
+    private static Map<String, Object> historyResponse(Page<ExportSummary> exports, int page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("exports", exports.getContent());
+        response.put("currentPage", Math.max(page, 1)); // Return 1-based page number to user
+        response.put("totalItems", exports.getTotalElements());
+        response.put("totalPages", exports.getTotalPages());
+        response.put("hasNext", exports.hasNext());
+        response.put("hasPrevious", exports.hasPrevious());
+        response.put("pageSize", exports.getSize());
+        return response;
     }
     
     /**
-     * Cancel export request (if still pending)
+     * Cancel export request
      * DELETE /api/exports/{referenceId}
+     * 
+     * Pending exports are cancelled right away; exports running on this instance
+     * stop within one batch, releasing their connection and partial file. An
+     * export running on another instance is flagged in export_history and
+     * stops after that instance's next progress flush.
      */
     @DeleteMapping("/{referenceId}")
     public ResponseEntity<String> cancelExport(@PathVariable String referenceId) {
@@ -210,17 +467,27 @@ public class ExportController {
             
             ExportHistory export = exportHistory.get();
             
-            if (export.getStatus() == ExportHistory.ExportStatus.PENDING) {
-                export.setStatus(ExportHistory.ExportStatus.FAILED);
-                export.setErrorMessage("Export cancelled by user");
-                export.setCompletedAt(LocalDateTime.now());
-                exportHistoryRepository.save(export);
-                
+            if (export.getStatus() == ExportHistory.ExportStatus.PENDING && exportJobScheduler.cancel(referenceId)) {
+                exportJobService.releaseInFlight(referenceId);
+                eventPublisher.cancelled(referenceId, "Export cancelled by user");
                 return new ResponseEntity<>("Export cancelled successfully", HttpStatus.OK);
-            } else {
-                return new ResponseEntity<>("Cannot cancel export in " + export.getStatus() + " status", HttpStatus.BAD_REQUEST);
             }
             
+            Optional<ExportProgress> running = progressRegistry.get(referenceId);
+            if (export.getStatus() == ExportHistory.ExportStatus.PROCESSING && running.isPresent()) {
+                // The job marks itself FAILED with this message once it stops
+                running.get().cancel("Export cancelled by user");
+                return new ResponseEntity<>("Export cancellation requested", HttpStatus.ACCEPTED);
+            }
+            
+            // Running on another instance: its next progress flush sees the flag and cancels the job
+            if (export.getStatus() == ExportHistory.ExportStatus.PROCESSING
+                    && exportHistoryRepository.requestCancel(referenceId) > 0) {
+                return new ResponseEntity<>("Export cancellation requested", HttpStatus.ACCEPTED);
+            }
+            
+            return new ResponseEntity<>("Cannot cancel export in " + export.getStatus() + " status", HttpStatus.BAD_REQUEST);
+            
         } catch (Exception e) {
             return new ResponseEntity<>("Error cancelling export: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -4,7 +4,14 @@ import com.example.employee_managment.model.ExportHistory;
 
 public class ExportRequest {
     
+    // FULL exports every matching row; DELTA only rows changed since the caller's previous
+    // completed DELTA export with the same filters and fields, ordered by (updatedAt, id)
+    public enum ExportMode {
+        FULL, DELTA
+    }
+    
     private String userId;
+    private ExportMode mode = ExportMode.FULL;
     private ExportHistory.ExportType exportType = ExportHistory.ExportType.CSV;
     
     // Filtering parameters
@@ -26,6 +33,12 @@ public class ExportRequest {
     private Integer page = 1;
     private Integer size = 1000;
     
+    // Parallelism for id-sorted full exports (null = server default)
+    private Integer shards;
+    
+    // Store the artifact gzip-compressed (null = server default); downloads are the same CSV either way
+    private Boolean compress;
+    
     // Constructors
     public ExportRequest() {}
     
@@ -33,6 +46,9 @@ public class ExportRequest {
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
     
+    public ExportMode getMode() { return mode; }
+    public void setMode(ExportMode mode) { this.mode = mode; }
+    
     public ExportHistory.ExportType getExportType() { return exportType; }
     public void setExportType(ExportHistory.ExportType exportType) { this.exportType = exportType; }
     
@@ -68,4 +84,10 @@ public class ExportRequest {
     
     public Integer getSize() { return size; }
     public void setSize(Integer size) { this.size = size; }
+    
+    public Integer getShards() { return shards; }
+    public void setShards(Integer shards) { this.shards = shards; }
+    
+    public Boolean getCompress() { return compress; }
+    public void setCompress(Boolean compress) { this.compress = compress; }
 } 
\ No newline at end of file
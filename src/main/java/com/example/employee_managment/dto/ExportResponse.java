@@ -14,6 +14,11 @@ public class ExportResponse {
     private Long fileSize;
     private String downloadUrl;
     
+    // Progress of a running export
+    private Long processedRecords;
+    private Double percentComplete;
+    private Double rowsPerSecond;
+    
     // Constructors
     public ExportResponse() {}
     
@@ -49,6 +54,15 @@ public class ExportResponse {
     public String getDownloadUrl() { return downloadUrl; }
     public void setDownloadUrl(String downloadUrl) { this.downloadUrl = downloadUrl; }
     
+    public Long getProcessedRecords() { return processedRecords; }
+    public void setProcessedRecords(Long processedRecords) { this.processedRecords = processedRecords; }
+    
+    public Double getPercentComplete() { return percentComplete; }
+    public void setPercentComplete(Double percentComplete) { this.percentComplete = percentComplete; }
+    
+    public Double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(Double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+    
     public LocalDateTime getStartedAt() { return null; } // Placeholder - not used in response
     public void setStartedAt(LocalDateTime startedAt) { /* Not needed in response */ }
     
@@ -0,0 +1,37 @@
+package com.example.employee_managment.dto;
+
+import com.example.employee_managment.model.ExportHistory;
+import java.time.LocalDateTime;
+
+/**
+ * Export history row as shown in listings. Queries returning it only select
+ * these columns, not the stored request or anything large.
+ */
+public interface ExportSummary {
+    
+    String getReferenceId();
+    
+    String getUserId();
+    
+    ExportHistory.ExportType getExportType();
+    
+    ExportHistory.ExportStatus getStatus();
+    
+    Long getTotalRecords();
+    
+    Long getProcessedRecords();
+    
+    Long getExpectedRecords();
+    
+    Long getFileSize();
+    
+    LocalDateTime getCreatedAt();
+    
+    LocalDateTime getStartedAt();
+    
+    LocalDateTime getCompletedAt();
+    
+    String getErrorMessage();
+    
+    LocalDateTime getExpiredAt();
+}
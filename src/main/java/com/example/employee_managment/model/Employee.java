@@ -6,11 +6,15 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
 import com.example.employee_managment.annotation.Encrypted;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employees")
 @EntityListeners(com.example.employee_managment.service.encryption.EncryptionEntityListener.class)
 @Table(name = "employees", indexes = {
     @Index(name = "idx_employee_email", columnList = "email"),
@@ -18,7 +22,13 @@ import java.time.LocalDateTime;
     @Index(name = "idx_employee_position", columnList = "position"),
     @Index(name = "idx_employee_salary", columnList = "salary"),
     @Index(name = "idx_employee_hire_date", columnList = "hire_date"),
-    @Index(name = "idx_employee_name", columnList = "first_name, last_name")
+    @Index(name = "idx_employee_name", columnList = "first_name, last_name"),
+    @Index(name = "idx_employee_updated_at_id", columnList = "updated_at, id"),
+    @Index(name = "idx_employee_first_name_id", columnList = "first_name, id"),
+    @Index(name = "idx_employee_last_name_id", columnList = "last_name, id"),
+    @Index(name = "idx_employee_phone_number_id", columnList = "phone_number, id"),
+    @Index(name = "idx_employee_date_of_birth_id", columnList = "date_of_birth, id"),
+    @Index(name = "idx_employee_created_at_id", columnList = "created_at, id")
 })
 public class Employee {
     
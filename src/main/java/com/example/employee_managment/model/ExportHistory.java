@@ -9,7 +9,10 @@ import com.example.employee_managment.annotation.Encrypted;
 @Table(name = "export_history", indexes = {
     @Index(name = "idx_export_reference_id", columnList = "reference_id"),
     @Index(name = "idx_export_status", columnList = "status"),
-    @Index(name = "idx_export_created_at", columnList = "created_at")
+    @Index(name = "idx_export_created_at", columnList = "created_at"),
+    @Index(name = "idx_export_request_hash", columnList = "request_hash"),
+    @Index(name = "idx_export_claim", columnList = "status, lease_expires_at"),
+    @Index(name = "idx_export_user_created_at", columnList = "user_id, created_at")
 })
 public class ExportHistory {
     
@@ -37,6 +40,12 @@ public class ExportHistory {
     @Column(name = "fields", columnDefinition = "TEXT")
     private String fields; // Comma-separated selected fields
     
+    @Column(name = "request_hash", length = 64)
+    private String requestHash; // Canonical key of the request; identical requests share it
+    
+    @Column(name = "data_version", length = 64)
+    private String dataVersion; // Employees MAX(updated_at) and row count when the export started
+    
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private ExportStatus status = ExportStatus.PENDING;
@@ -44,15 +53,48 @@ public class ExportHistory {
     @Column(name = "total_records")
     private Long totalRecords;
     
-    @Column(name = "file_path", length = 500)
-    private String filePath;
+    @Column(name = "processed_records")
+    private Long processedRecords; // Rows written so far, flushed periodically while PROCESSING
+    
+    @Column(name = "expected_records")
+    private Long expectedRecords; // Rows the export will contain, counted when it starts
+    
+    @Column(name = "checkpoint_key")
+    private Long checkpointKey; // Last employee id fully written to the partial artifact
+    
+    @Column(name = "checkpoint_offset")
+    private Long checkpointOffset; // Partial artifact length at the checkpoint
+    
+    @Column(name = "checkpoint_records")
+    private Long checkpointRecords; // Rows written up to the checkpoint
+    
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt; // Last progress flush by the worker running the export
     
-    @Column(name = "csv_data", columnDefinition = "LONGTEXT")
-    private String csvData; // Store CSV content directly
+    @Column(name = "watermark_updated_at")
+    private LocalDateTime watermarkUpdatedAt; // Delta exports: updated_at of the last row exported
+    
+    @Column(name = "watermark_id")
+    private Long watermarkId; // Delta exports: id of the last row exported; the next delta continues after both
+    
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner; // Instance whose worker claimed the export
+    
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt; // Any instance may claim the export once this has passed
+    
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested; // Cancel requested on any instance; the lease owner's progress flush stops the job
+    
+    @Column(name = "file_path", length = 500)
+    private String filePath; // Stored artifact; legacy exports without one keep their CSV in ExportPayload
     
     @Column(name = "file_size")
     private Long fileSize;
     
+    @Column(name = "checksum", length = 64)
+    private String checksum; // SHA-256 of the stored artifact
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -65,6 +107,9 @@ public class ExportHistory {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
     
+    @Column(name = "expired_at")
+    private LocalDateTime expiredAt; // Artifact deleted by the retention sweeper; the row stays for audit
+    
     // Enums
     public enum ExportType {
         CSV, EXCEL, PDF
@@ -109,21 +154,60 @@ public class ExportHistory {
     public String getFields() { return fields; }
     public void setFields(String fields) { this.fields = fields; }
     
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+    
+    public String getDataVersion() { return dataVersion; }
+    public void setDataVersion(String dataVersion) { this.dataVersion = dataVersion; }
+    
     public ExportStatus getStatus() { return status; }
     public void setStatus(ExportStatus status) { this.status = status; }
     
     public Long getTotalRecords() { return totalRecords; }
     public void setTotalRecords(Long totalRecords) { this.totalRecords = totalRecords; }
     
+    public Long getProcessedRecords() { return processedRecords; }
+    public void setProcessedRecords(Long processedRecords) { this.processedRecords = processedRecords; }
+    
+    public Long getExpectedRecords() { return expectedRecords; }
+    public void setExpectedRecords(Long expectedRecords) { this.expectedRecords = expectedRecords; }
+    
+    public Long getCheckpointKey() { return checkpointKey; }
+    public void setCheckpointKey(Long checkpointKey) { this.checkpointKey = checkpointKey; }
+    
+    public Long getCheckpointOffset() { return checkpointOffset; }
+    public void setCheckpointOffset(Long checkpointOffset) { this.checkpointOffset = checkpointOffset; }
+    
+    public Long getCheckpointRecords() { return checkpointRecords; }
+    public void setCheckpointRecords(Long checkpointRecords) { this.checkpointRecords = checkpointRecords; }
+    
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+    
+    public LocalDateTime getWatermarkUpdatedAt() { return watermarkUpdatedAt; }
+    public void setWatermarkUpdatedAt(LocalDateTime watermarkUpdatedAt) { this.watermarkUpdatedAt = watermarkUpdatedAt; }
+    
+    public Long getWatermarkId() { return watermarkId; }
+    public void setWatermarkId(Long watermarkId) { this.watermarkId = watermarkId; }
+    
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+    
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+    
+    public boolean isCancelRequested() { return cancelRequested; }
+    public void setCancelRequested(boolean cancelRequested) { this.cancelRequested = cancelRequested; }
+    
     public String getFilePath() { return filePath; }
     public void setFilePath(String filePath) { this.filePath = filePath; }
     
-    public String getCsvData() { return csvData; }
-    public void setCsvData(String csvData) { this.csvData = csvData; }
-    
     public Long getFileSize() { return fileSize; }
     public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
     
+    public String getChecksum() { return checksum; }
+    public void setChecksum(String checksum) { this.checksum = checksum; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -135,4 +219,7 @@ public class ExportHistory {
     
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    
+    public LocalDateTime getExpiredAt() { return expiredAt; }
+    public void setExpiredAt(LocalDateTime expiredAt) { this.expiredAt = expiredAt; }
 } 
\ No newline at end of file
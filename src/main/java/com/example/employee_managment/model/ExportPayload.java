@@ -0,0 +1,34 @@
+package com.example.employee_managment.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Inline CSV content of a legacy export, kept apart from export_history so
+ * reading export rows never loads it. New exports store a file instead.
+ */
+@Entity
+@Table(name = "export_payload")
+public class ExportPayload {
+    
+    @Id
+    @Column(name = "export_id")
+    private Long exportId; // Id of the export_history row
+    
+    @Column(name = "csv_data", columnDefinition = "LONGTEXT", nullable = false)
+    private String csvData;
+    
+    // Constructors
+    public ExportPayload() {}
+    
+    public ExportPayload(Long exportId, String csvData) {
+        this.exportId = exportId;
+        this.csvData = csvData;
+    }
+    
+    // Getters and Setters
+    public Long getExportId() { return exportId; }
+    public void setExportId(Long exportId) { this.exportId = exportId; }
+    
+    public String getCsvData() { return csvData; }
+    public void setCsvData(String csvData) { this.csvData = csvData; }
+}
@@ -0,0 +1,141 @@
+package com.example.employee_managment.repository;
+
+import com.example.employee_managment.model.Employee;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the employee list for keyset ("cursor") paging: the sort
+ * property and direction, and the sort value and id of the last row returned.
+ * 
+ * The next page is read with {@code WHERE (property, id) > (value, lastId)}
+ * in the sort order, so the database seeks into the (property, id) index
+ * instead of reading and discarding every row before an OFFSET; a deep page
+ * costs the same as the first one. id follows the direction of the sort
+ * property here (not always ascending, as in {@link EmployeeSort}) so a
+ * descending page is a plain backward scan of the same index.
+ * 
+ * Clients get the position as an opaque URL-safe token and must not parse it.
+ */
+public final class EmployeeCursor {
+    
+    private final String property;
+    private final Sort.Direction direction;
+    private final Long lastId;
+    private final Object lastValue;
+    
+    private EmployeeCursor(String property, Sort.Direction direction, Long lastId, Object lastValue) {
+        this.property = property;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+    
+    /**
+     * Cursor before the first row, for the sortBy/sortDir request parameters
+     * (resolved like {@link EmployeeSort#of}).
+     */
+    public static EmployeeCursor first(String sortBy, String sortDir) {
+        String property = EmployeeSort.resolveProperty(sortBy);
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return new EmployeeCursor(property != null ? property : "id", direction, null, null);
+    }
+    
+    /**
+     * Decode a token returned by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed or names a property that cannot be sorted on
+     */
+    public static EmployeeCursor decode(String token) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        
+        // property,direction,id[,value] - the value goes last since it may contain commas; absent means NULL
+        String[] parts = decoded.split(",", 4);
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String property = EmployeeSort.resolveProperty(parts[0]);
+        if (property == null || !property.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            long lastId = Long.parseLong(parts[2]);
+            Object lastValue = parts.length == 4 ? parseValue(property, parts[3]) : null;
+            return new EmployeeCursor(property, direction, lastId, lastValue);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    /**
+     * Cursor positioned after the given employee, the last one of a page.
+     */
+    public EmployeeCursor after(Employee last) {
+        Object value = new BeanWrapperImpl(last).getPropertyValue(property);
+        return new EmployeeCursor(property, direction, last.getId(), value);
+    }
+    
+    /**
+     * Cursor positioned after the row with the given id and sort property
+     * value, for pages read as columns rather than entities.
+     */
+    public EmployeeCursor after(Long lastId, Object lastValue) {
+        return new EmployeeCursor(property, direction, lastId, lastValue);
+    }
+    
+    public String getProperty() {
+        return property;
+    }
+    
+    public String encode() {
+        StringBuilder token = new StringBuilder()
+                .append(property).append(',')
+                .append(direction.name()).append(',')
+                .append(lastId);
+        if (lastValue != null) {
+            token.append(',').append(lastValue);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Order matching the seek predicate: the sort property, then id, in the same direction
+    public Sort toSort() {
+        Sort sort = Sort.by(direction, property);
+        return "id".equals(property) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+    
+    // Rows after the cursor, or every row for the first page
+    public Specification<Employee> toSpecification() {
+        if (lastId == null) {
+            return EmployeeSpecifications.all();
+        }
+        return EmployeeSpecifications.sortedAfter(property, direction, lastValue, lastId);
+    }
+    
+    private static Object parseValue(String property, String value) {
+        Class<?> type = BeanUtils.findPropertyType(property, Employee.class);
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        } else if (type == Double.class) {
+            return Double.valueOf(value);
+        } else if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        return value;
+    }
+}
@@ -1,42 +1,79 @@
 package com.example.employee_managment.repository;
 
 import com.example.employee_managment.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>,
+        JpaSpecificationExecutor<Employee>, EmployeeRepositoryCustom {
+    
+    // Query cache region of the read-mostly finders, used when the second-level cache is enabled
+    String FINDER_CACHE_REGION = "employee-finders";
     
     // Paginated query for all employees
     Page<Employee> findAll(Pageable pageable);
     
-    // Find employee by email
+    // Find employee by email; cached when the second-level cache is enabled, which then replaces the EmployeeCache
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = FINDER_CACHE_REGION)})
     Optional<Employee> findByEmail(String email);
     
     // Find employees by department
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = FINDER_CACHE_REGION)})
     List<Employee> findByDepartment(String department);
     
+    // One page of employees by department (a Slice: no count query)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = FINDER_CACHE_REGION)})
+    Slice<Employee> findByDepartment(String department, Pageable pageable);
+    
     // Find employees by position
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = FINDER_CACHE_REGION)})
     List<Employee> findByPosition(String position);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = FINDER_CACHE_REGION)})
+    Slice<Employee> findByPosition(String position, Pageable pageable);
+    
     // Find employees by first name or last name (case-insensitive)
     List<Employee> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
             String firstName, String lastName);
     
+    Slice<Employee> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
+            String firstName, String lastName, Pageable pageable);
+    
     // Custom query to find employees with salary greater than given amount
     @Query("SELECT e FROM Employee e WHERE e.salary > :minSalary")
     List<Employee> findEmployeesWithSalaryGreaterThan(@Param("minSalary") Double minSalary);
     
+    @Query("SELECT e FROM Employee e WHERE e.salary > :minSalary")
+    Slice<Employee> findEmployeesWithSalaryGreaterThan(@Param("minSalary") Double minSalary, Pageable pageable);
+    
     // Check if email exists
     boolean existsByEmail(String email);
     
     // Find employees by department and position
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = FINDER_CACHE_REGION)})
     List<Employee> findByDepartmentAndPosition(String department, String position);
+    
+    // Latest modification time of any employee (uses idx_employee_updated_at)
+    @Query("SELECT MAX(e.updatedAt) FROM Employee e")
+    LocalDateTime findMaxUpdatedAt();
 } 
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.example.employee_managment.repository;
+
+import com.example.employee_managment.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Custom query methods for {@link EmployeeRepository} that Spring Data
+ * cannot derive.
+ */
+public interface EmployeeRepositoryCustom {
+    
+    /**
+     * Runs the specification with ORDER BY and LIMIT/OFFSET applied in the
+     * database. Unlike {@code findAll(Specification, Pageable)} no COUNT(*)
+     * query is issued; whether there is a next slice is found by fetching one
+     * extra row.
+     */
+    Slice<Employee> findSlice(Specification<Employee> specification, Pageable pageable);
+    
+    /**
+     * Lowest and highest id among the employees matching the specification,
+     * or empty if none match.
+     */
+    Optional<Range<Long>> findIdRange(Specification<Employee> specification);
+    
+    /**
+     * Same as {@link #findSlice} but only SELECTs the given entity properties.
+     * Each row is an array holding the values in the order of
+     * {@code properties}; no entities are created, so entity listeners
+     * (e.g. email decryption) do not run.
+     */
+    Slice<Object[]> findColumnSlice(Specification<Employee> specification, List<String> properties, Pageable pageable);
+    
+    /**
+     * Streams the given entity properties of the employees matching the
+     * specification through a forward-only cursor opened in a stateless
+     * session. Each row is an array holding the values in the order of
+     * {@code properties}; only those columns are read and no entities are
+     * created. The JDBC driver fetches {@code fetchSize} rows per round trip.
+     * 
+     * The stream holds its own database connection and must be closed, e.g.
+     * with try-with-resources.
+     */
+    Stream<Object[]> streamColumns(Specification<Employee> specification, List<String> properties,
+                                   Pageable pageable, int fetchSize);
+}
@@ -0,0 +1,143 @@
+package com.example.employee_managment.repository;
+
+import com.example.employee_managment.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link EmployeeRepositoryCustom}, picked up by Spring Data
+ * as a repository fragment.
+ */
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Override
+    public Slice<Employee> findSlice(Specification<Employee> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
+        Root<Employee> root = query.from(Employee.class);
+        
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        
+        TypedQuery<Employee> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        
+        List<Employee> rows = typedQuery.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+    
+    @Override
+    public Optional<Range<Long>> findIdRange(Specification<Employee> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Employee> root = query.from(Employee.class);
+        
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(cb.min(root.<Long>get("id")), cb.max(root.<Long>get("id")));
+        
+        Object[] bounds = entityManager.createQuery(query).getSingleResult();
+        if (bounds[0] == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Range.closed((Long) bounds[0], (Long) bounds[1]));
+    }
+    
+    @Override
+    public Slice<Object[]> findColumnSlice(Specification<Employee> specification, List<String> properties, Pageable pageable) {
+        TypedQuery<Object[]> typedQuery = entityManager.createQuery(
+                columnQuery(entityManager.getCriteriaBuilder(), specification, properties, pageable.getSort()));
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        
+        List<Object[]> rows = typedQuery.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+    
+    @Override
+    public Stream<Object[]> streamColumns(Specification<Employee> specification, List<String> properties,
+                                          Pageable pageable, int fetchSize) {
+        StatelessSession session = entityManagerFactory.unwrap(SessionFactory.class).openStatelessSession();
+        try {
+            SelectionQuery<Object[]> selectionQuery = session.createSelectionQuery(
+                    columnQuery(session.getCriteriaBuilder(), specification, properties, pageable.getSort()));
+            selectionQuery.setFetchSize(fetchSize);
+            if (pageable.isPaged()) {
+                selectionQuery.setFirstResult((int) pageable.getOffset());
+                selectionQuery.setMaxResults(pageable.getPageSize());
+            }
+            
+            return selectionQuery.getResultStream().onClose(session::close);
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+    
+    // Builds SELECT <properties> FROM Employee WHERE <specification> ORDER BY <sort>
+    private CriteriaQuery<Object[]> columnQuery(CriteriaBuilder cb, Specification<Employee> specification,
+                                                List<String> properties, Sort sort) {
+        if (properties.isEmpty()) {
+            throw new IllegalArgumentException("At least one property must be selected");
+        }
+        
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Employee> root = query.from(Employee.class);
+        
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        
+        List<Selection<?>> selections = new ArrayList<>(properties.size());
+        for (String property : properties) {
+            selections.add(root.get(property));
+        }
+        return query.multiselect(selections).orderBy(QueryUtils.toOrders(sort, root, cb));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.employee_managment.repository;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Map;
+
+/**
+ * Translates the sortBy/sortDir request parameters used by the list and
+ * export APIs into a {@link Sort} the database can apply.
+ * 
+ * Field names are matched case-insensitively ("hiredate", "hireDate"), and
+ * id is always appended as a tie-breaker so paging over equal sort values is
+ * stable. Unknown fields fall back to sorting by id.
+ */
+public final class EmployeeSort {
+    
+    private static final Map<String, String> PROPERTIES = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("firstname", "firstName"),
+            Map.entry("lastname", "lastName"),
+            Map.entry("email", "email"),
+            Map.entry("phonenumber", "phoneNumber"),
+            Map.entry("salary", "salary"),
+            Map.entry("department", "department"),
+            Map.entry("position", "position"),
+            Map.entry("hiredate", "hireDate"),
+            Map.entry("dateofbirth", "dateOfBirth"),
+            Map.entry("createdat", "createdAt"),
+            Map.entry("updatedat", "updatedAt")
+    );
+    
+    private EmployeeSort() {
+    }
+    
+    /**
+     * Returns the entity property for a sortBy parameter, or null if it is not sortable.
+     */
+    public static String resolveProperty(String sortBy) {
+        if (sortBy == null) {
+            return null;
+        }
+        return PROPERTIES.get(sortBy.trim().toLowerCase());
+    }
+    
+    public static Sort of(String sortBy, String sortDir) {
+        String property = resolveProperty(sortBy);
+        if (property == null) {
+            property = "id";
+        }
+        
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, property);
+        return "id".equals(property) ? sort : sort.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.employee_managment.repository;
+
+import com.example.employee_managment.model.Employee;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Composable query criteria for {@link Employee}.
+ * 
+ * Each method returns a single predicate; {@link #withFilters} combines every
+ * filter that is set into one WHERE clause so the database does all the
+ * filtering (and the sorting and paging) in a single statement.
+ */
+public final class EmployeeSpecifications {
+    
+    private static final char LIKE_ESCAPE = '\\';
+    
+    private EmployeeSpecifications() {
+    }
+    
+    // Matches every employee
+    public static Specification<Employee> all() {
+        return Specification.allOf();
+    }
+    
+    // Keyset position: every employee after the given id
+    public static Specification<Employee> idGreaterThan(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+    
+    public static Specification<Employee> idAtMost(long id) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("id"), id);
+    }
+    
+    // Keyset position on (updatedAt, id): every employee changed after the given row
+    public static Specification<Employee> updatedAfter(LocalDateTime updatedAt, long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("updatedAt"), updatedAt),
+                cb.and(cb.equal(root.get("updatedAt"), updatedAt), cb.greaterThan(root.get("id"), id)));
+    }
+    
+    /**
+     * Keyset position on (property, id), both in the given direction: every
+     * employee after the given row. NULLs sort lowest, as in MySQL, so they
+     * come first ascending and last descending.
+     */
+    public static Specification<Employee> sortedAfter(String property, Sort.Direction direction, Object value, long id) {
+        return (root, query, cb) -> {
+            Expression<Comparable> key = root.get(property);
+            Predicate idAfter = direction.isAscending()
+                    ? cb.greaterThan(root.get("id"), id)
+                    : cb.lessThan(root.get("id"), id);
+            if ("id".equals(property)) {
+                return idAfter;
+            }
+            if (value == null) {
+                Predicate sameKey = cb.and(cb.isNull(key), idAfter);
+                return direction.isAscending() ? cb.or(sameKey, cb.isNotNull(key)) : sameKey;
+            }
+            
+            Predicate sameKey = cb.and(cb.equal(key, value), idAfter);
+            return direction.isAscending()
+                    ? cb.or(greaterThan(cb, key, value), sameKey)
+                    : cb.or(lessThan(cb, key, value), sameKey, cb.isNull(key));
+        };
+    }
+    
+    public static Specification<Employee> updatedAtMost(LocalDateTime updatedAt) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("updatedAt"), updatedAt);
+    }
+    
+    public static Specification<Employee> hasDepartment(String department) {
+        return (root, query, cb) -> cb.equal(root.get("department"), department);
+    }
+    
+    public static Specification<Employee> hasPosition(String position) {
+        return (root, query, cb) -> cb.equal(root.get("position"), position);
+    }
+    
+    public static Specification<Employee> hasEmail(String email) {
+        return (root, query, cb) -> cb.equal(root.get("email"), email);
+    }
+    
+    // Strictly greater than, matching findEmployeesWithSalaryGreaterThan
+    public static Specification<Employee> salaryGreaterThan(Double minSalary) {
+        return (root, query, cb) -> cb.greaterThan(root.get("salary"), minSalary);
+    }
+    
+    public static Specification<Employee> salaryAtMost(Double maxSalary) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("salary"), maxSalary);
+    }
+    
+    // First name or last name contains the given text (case-insensitive)
+    public static Specification<Employee> nameContains(String name) {
+        return (root, query, cb) -> {
+            String pattern = "%" + escapeLike(name.toLowerCase()) + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("firstName")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(root.get("lastName")), pattern, LIKE_ESCAPE));
+        };
+    }
+    
+    /**
+     * Combines every non-null filter with AND. With no filters set the
+     * result matches all employees.
+     */
+    public static Specification<Employee> withFilters(String department, String position,
+                                                      Double minSalary, Double maxSalary,
+                                                      String name, String email) {
+        List<Specification<Employee>> specifications = new ArrayList<>();
+        
+        if (department != null) specifications.add(hasDepartment(department));
+        if (position != null) specifications.add(hasPosition(position));
+        if (minSalary != null) specifications.add(salaryGreaterThan(minSalary));
+        if (maxSalary != null) specifications.add(salaryAtMost(maxSalary));
+        if (name != null) specifications.add(nameContains(name));
+        if (email != null) specifications.add(hasEmail(email));
+        
+        return Specification.allOf(specifications);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Predicate greaterThan(CriteriaBuilder cb, Expression<Comparable> key, Object value) {
+        return cb.greaterThan(key, (Comparable) value);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Predicate lessThan(CriteriaBuilder cb, Expression<Comparable> key, Object value) {
+        return cb.lessThan(key, (Comparable) value);
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
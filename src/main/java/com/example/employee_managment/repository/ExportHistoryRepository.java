@@ -1,12 +1,20 @@
 package com.example.employee_managment.repository;
 
+import com.example.employee_managment.dto.ExportSummary;
 import com.example.employee_managment.model.ExportHistory;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +27,16 @@ public interface ExportHistoryRepository extends JpaRepository<ExportHistory, Lo
     
     List<ExportHistory> findByUserId(String userId);
     
+    // Listings select the summary columns only
+    Page<ExportSummary> findSummariesBy(Pageable pageable);
+    
+    Page<ExportSummary> findSummariesByUserId(String userId, Pageable pageable);
+    
+    Optional<ExportSummary> findSummaryByReferenceId(String referenceId);
+    
+    // State of every export watched over SSE whose job is not running on this instance, in one query
+    List<ExportSummary> findSummariesByReferenceIdIn(Collection<String> referenceIds);
+    
     List<ExportHistory> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
     @Query("SELECT e FROM ExportHistory e WHERE e.status = 'COMPLETED' AND e.createdAt >= :since")
@@ -29,4 +47,152 @@ public interface ExportHistoryRepository extends JpaRepository<ExportHistory, Lo
     
     @Query("SELECT e FROM ExportHistory e WHERE e.status = 'PENDING' ORDER BY e.createdAt ASC")
     List<ExportHistory> findPendingExportsOrderByCreatedAt();
-} 
\ No newline at end of file
+    
+    // Most recent export with the given request key in one of the given states
+    Optional<ExportHistory> findFirstByRequestHashAndStatusInOrderByCreatedAtDesc(
+            String requestHash, Collection<ExportHistory.ExportStatus> statuses);
+    
+    // Latest completed export of a request; a delta export continues from its watermark
+    Optional<ExportHistory> findFirstByRequestHashAndStatusOrderByCompletedAtDesc(
+            String requestHash, ExportHistory.ExportStatus status);
+    
+    @Query("SELECT COUNT(e) FROM ExportHistory e WHERE e.status = 'PENDING'")
+    long countPendingExports();
+    
+    @Query("SELECT COUNT(e) FROM ExportHistory e WHERE e.status = 'PENDING' AND " +
+           "(e.userId = :userId OR (e.userId IS NULL AND :userId IS NULL))")
+    long countPendingExportsByUser(@Param("userId") String userId);
+    
+    // Running exports per user, for fair claiming
+    @Query("SELECT e.userId, COUNT(e) FROM ExportHistory e WHERE e.status = 'PROCESSING' GROUP BY e.userId")
+    List<Object[]> countProcessingExportsByUser();
+    
+    // Oldest exports a worker may claim: PENDING ones nobody holds a lease on, and PROCESSING ones whose
+    // lease expired. Rows locked by a concurrent claim on any instance are skipped instead of waited for.
+    @Query(value = "SELECT * FROM export_history WHERE " +
+                   "(status = 'PENDING' AND (lease_expires_at IS NULL OR lease_expires_at < :now)) " +
+                   "OR (status = 'PROCESSING' AND lease_expires_at < :now) " +
+                   "ORDER BY created_at ASC LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<ExportHistory> lockClaimableExports(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    // Hands a claimed export back so another worker can take it right away
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportHistory e SET e.status = 'PENDING', e.leaseOwner = NULL, e.leaseExpiresAt = NULL " +
+           "WHERE e.referenceId = :referenceId AND e.leaseOwner = :owner AND e.status IN ('PENDING', 'PROCESSING')")
+    int releaseLease(@Param("referenceId") String referenceId, @Param("owner") String owner);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportHistory e SET e.status = 'FAILED', e.errorMessage = :reason, e.completedAt = :now " +
+           "WHERE e.referenceId = :referenceId AND e.status = 'PENDING'")
+    int cancelPendingExport(@Param("referenceId") String referenceId, @Param("reason") String reason,
+                            @Param("now") LocalDateTime now);
+    
+    // Progress of a running export, renewing its lease; only touches the progress and lease columns so it cannot
+    // overwrite the job's own updates, and only while the given instance still holds the lease
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportHistory e SET e.processedRecords = :processed, e.expectedRecords = :expected, e.fileSize = :bytes, " +
+           "e.heartbeatAt = :now, e.leaseExpiresAt = :leaseUntil " +
+           "WHERE e.referenceId = :referenceId AND e.status = 'PROCESSING' AND e.leaseOwner = :owner")
+    int updateProgress(@Param("referenceId") String referenceId, @Param("owner") String owner,
+                       @Param("processed") long processed, @Param("expected") Long expected, @Param("bytes") long bytes,
+                       @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    // Asks the instance running an export to cancel it; its progress flush picks the flag up
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportHistory e SET e.cancelRequested = true WHERE e.referenceId = :referenceId AND e.status = 'PROCESSING'")
+    int requestCancel(@Param("referenceId") String referenceId);
+    
+    @Query("SELECT e.referenceId FROM ExportHistory e WHERE e.referenceId IN :referenceIds AND e.cancelRequested = true")
+    List<String> findCancelRequested(@Param("referenceIds") Collection<String> referenceIds);
+    
+    // Point a running export can be resumed from: everything up to the key is in the first offset bytes of its partial artifact
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportHistory e SET e.checkpointKey = :key, e.checkpointOffset = :offset, e.checkpointRecords = :records, " +
+           "e.heartbeatAt = :now WHERE e.referenceId = :referenceId AND e.status = 'PROCESSING' AND e.leaseOwner = :owner")
+    int updateCheckpoint(@Param("referenceId") String referenceId, @Param("owner") String owner, @Param("key") long key,
+                         @Param("offset") long offset, @Param("records") long records, @Param("now") LocalDateTime now);
+    
+    // The job's own state transitions are guarded by the lease like its progress updates: a worker whose lease
+    // expired and was claimed by another instance gets 0 rows back instead of overwriting the new owner's row
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportHistory e SET e.status = 'PROCESSING', e.startedAt = :startedAt, e.dataVersion = :dataVersion, " +
+           "e.heartbeatAt = :now WHERE e.referenceId = :referenceId AND e.status = 'PENDING' AND e.leaseOwner = :owner")
+    int markProcessing(@Param("referenceId") String referenceId, @Param("owner") String owner,
+                       @Param("startedAt") LocalDateTime startedAt, @Param("dataVersion") String dataVersion,
+                       @Param("now") LocalDateTime now);
+    
+    // A running export that could not reopen its partial artifact starts over, so its checkpoint no longer applies
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportHistory e SET e.checkpointKey = NULL, e.checkpointOffset = NULL, e.checkpointRecords = NULL " +
+           "WHERE e.referenceId = :referenceId AND e.status = 'PROCESSING' AND e.leaseOwner = :owner")
+    int clearCheckpoint(@Param("referenceId") String referenceId, @Param("owner") String owner);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportHistory e SET e.status = 'COMPLETED', e.totalRecords = :total, e.processedRecords = :total, " +
+           "e.expectedRecords = :expected, e.filePath = :filePath, e.fileSize = :fileSize, e.checksum = :checksum, " +
+           "e.watermarkUpdatedAt = :watermarkUpdatedAt, e.watermarkId = :watermarkId, e.checkpointKey = NULL, " +
+           "e.checkpointOffset = NULL, e.checkpointRecords = NULL, e.leaseExpiresAt = NULL, e.completedAt = :now " +
+           "WHERE e.referenceId = :referenceId AND e.status = 'PROCESSING' AND e.leaseOwner = :owner")
+    int markCompleted(@Param("referenceId") String referenceId, @Param("owner") String owner,
+                      @Param("total") long total, @Param("expected") Long expected, @Param("filePath") String filePath,
+                      @Param("fileSize") long fileSize, @Param("checksum") String checksum,
+                      @Param("watermarkUpdatedAt") LocalDateTime watermarkUpdatedAt, @Param("watermarkId") Long watermarkId,
+                      @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportHistory e SET e.status = 'FAILED', e.errorMessage = :reason, e.completedAt = :now " +
+           "WHERE e.referenceId = :referenceId AND e.status IN ('PENDING', 'PROCESSING') AND e.leaseOwner = :owner")
+    int markFailed(@Param("referenceId") String referenceId, @Param("owner") String owner,
+                   @Param("reason") String reason, @Param("now") LocalDateTime now);
+    
+    // Completed exports whose artifact is still stored, oldest first, in batches for the retention sweeper
+    @Query("SELECT e FROM ExportHistory e WHERE e.status = 'COMPLETED' AND e.expiredAt IS NULL " +
+           "AND e.completedAt < :cutoff ORDER BY e.completedAt ASC, e.id ASC")
+    List<ExportHistory> findLiveArtifactsCompletedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Query("SELECT e FROM ExportHistory e WHERE e.status = 'COMPLETED' AND e.expiredAt IS NULL AND " +
+           "(e.userId = :userId OR (e.userId IS NULL AND :userId IS NULL)) ORDER BY e.completedAt ASC, e.id ASC")
+    List<ExportHistory> findLiveArtifactsByUser(@Param("userId") String userId, Pageable pageable);
+    
+    @Query("SELECT e FROM ExportHistory e WHERE e.status = 'COMPLETED' AND e.expiredAt IS NULL " +
+           "ORDER BY e.completedAt ASC, e.id ASC")
+    List<ExportHistory> findLiveArtifacts(Pageable pageable);
+    
+    // Users whose stored artifacts take more than the quota, with the bytes they take
+    @Query("SELECT e.userId, SUM(e.fileSize) FROM ExportHistory e WHERE e.status = 'COMPLETED' AND e.expiredAt IS NULL " +
+           "GROUP BY e.userId HAVING SUM(e.fileSize) > :quota")
+    List<Object[]> findUsersOverStorageQuota(@Param("quota") long quota);
+    
+    @Query("SELECT COALESCE(SUM(e.fileSize), 0) FROM ExportHistory e WHERE e.status = 'COMPLETED' AND e.expiredAt IS NULL")
+    long sumLiveArtifactBytes();
+    
+    // Keeps the row for audit once its artifact is deleted; returns the ids this call marked. The rows are locked
+    // first, so one that a concurrent sweep on another instance already marked is left out and counted only once
+    @Transactional
+    default List<Long> markExpired(Collection<Long> ids, LocalDateTime now) {
+        List<Long> live = lockUnexpired(ids).stream().map(ExportHistory::getId).toList();
+        if (!live.isEmpty()) {
+            expireArtifacts(live, now);
+        }
+        return live;
+    }
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM ExportHistory e WHERE e.id IN :ids AND e.expiredAt IS NULL")
+    List<ExportHistory> lockUnexpired(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExportHistory e SET e.expiredAt = :now, e.filePath = NULL WHERE e.id IN :ids AND e.expiredAt IS NULL")
+    int expireArtifacts(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,9 @@
+package com.example.employee_managment.repository;
+
+import com.example.employee_managment.model.ExportPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ExportPayloadRepository extends JpaRepository<ExportPayload, Long> {
+}
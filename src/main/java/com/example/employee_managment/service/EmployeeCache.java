@@ -0,0 +1,179 @@
+package com.example.employee_managment.service;
+
+import com.example.employee_managment.model.Employee;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of employees by id, with an email to id index, so the
+ * by-id and by-email lookups skip the database and the decryption listener.
+ * 
+ * Both maps are bounded by maximum-size and expire ttl after an entry was
+ * loaded. Writers invalidate the employee they changed once the change is
+ * committed. A load that read the row before that commit cannot put it back
+ * afterwards: it is only cached if no write happened since it started, and
+ * that check and the invalidation of an id are serialized by the cache.
+ * Callers get their own copy, so changing one does not change the cached
+ * employee.
+ * 
+ * With the Hibernate second-level cache enabled, this cache steps aside
+ * and every lookup goes straight to the loader: findById is then served
+ * from the "employees" entity region and findByEmail from the query cache,
+ * both invalidated by Hibernate on every write made through JPA. Caching
+ * the same rows again here would only add a second copy with its own,
+ * weaker invalidation. This cache is for deployments without L2, where it
+ * also saves the decryption listener on a hit.
+ * 
+ * The cache is local to this instance: it only sees writes made through
+ * this instance's EmployeeService. A change made by another instance (or
+ * directly in the database) is served stale from here until the entry's ttl
+ * runs out, so ttl is the bound on that staleness when several instances run.
+ * 
+ * Hits, misses and evictions are published as the {@code cache.*} metrics
+ * tagged {@code cache=employees.by-id} and {@code cache=employees.by-email},
+ * and the time taken by hits and misses (a miss includes the database load)
+ * as the {@code employees.cache.lookup} timer with the same cache tag.
+ */
+@Component
+public class EmployeeCache implements MeterBinder {
+    
+    private final Cache<Long, Employee> byId;
+    private final Cache<String, Long> idByEmail;
+    private final AtomicLong writes = new AtomicLong();
+    private final boolean deferred;
+    private volatile Timer byIdHits;
+    private volatile Timer byIdMisses;
+    private volatile Timer byEmailHits;
+    private volatile Timer byEmailMisses;
+    
+    public EmployeeCache(long maximumSize, Duration ttl) {
+        this(maximumSize, ttl, false);
+    }
+    
+    @Autowired
+    public EmployeeCache(@Value("${app.employee.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${app.employee.cache.ttl:10m}") Duration ttl,
+                         @Value("${app.employee.second-level-cache.enabled:false}") boolean secondLevelCacheEnabled) {
+        this.deferred = secondLevelCacheEnabled;
+        this.byId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+        this.idByEmail = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+    }
+    
+    /**
+     * The cached employee with this id, or the one the loader finds (which is then cached)
+     */
+    public Optional<Employee> getById(Long id, Function<Long, Optional<Employee>> loader) {
+        if (deferred) {
+            return loader.apply(id);
+        }
+        long start = System.nanoTime();
+        Employee cached = byId.getIfPresent(id);
+        if (cached != null) {
+            Optional<Employee> hit = Optional.of(copy(cached));
+            record(byIdHits, start);
+            return hit;
+        }
+        
+        long writesBefore = writes.get();
+        Optional<Employee> loaded = loader.apply(id);
+        loaded.ifPresent(employee -> put(employee, writesBefore));
+        record(byIdMisses, start);
+        return loaded;
+    }
+    
+    /**
+     * The cached employee with this email, or the one the loader finds (which is then cached)
+     */
+    public Optional<Employee> getByEmail(String email, Function<String, Optional<Employee>> loader) {
+        if (deferred) {
+            return loader.apply(email);
+        }
+        long start = System.nanoTime();
+        Long id = idByEmail.getIfPresent(email);
+        if (id != null) {
+            Employee cached = byId.getIfPresent(id);
+            if (cached != null && email.equals(cached.getEmail())) {
+                Optional<Employee> hit = Optional.of(copy(cached));
+                record(byEmailHits, start);
+                return hit;
+            }
+        }
+        
+        long writesBefore = writes.get();
+        Optional<Employee> loaded = loader.apply(email);
+        loaded.ifPresent(employee -> put(employee, writesBefore));
+        record(byEmailMisses, start);
+        return loaded;
+    }
+    
+    /**
+     * Drop an employee that was updated or deleted; call after the change is committed
+     */
+    public void invalidate(Employee employee) {
+        writes.incrementAndGet();
+        byId.invalidate(employee.getId());
+        if (employee.getEmail() != null) {
+            idByEmail.invalidate(employee.getEmail());
+        }
+    }
+    
+    public void invalidateAll() {
+        writes.incrementAndGet();
+        byId.invalidateAll();
+        idByEmail.invalidateAll();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "employees.by-id");
+        CaffeineCacheMetrics.monitor(registry, idByEmail, "employees.by-email");
+        byIdHits = lookupTimer(registry, "employees.by-id", "hit");
+        byIdMisses = lookupTimer(registry, "employees.by-id", "miss");
+        byEmailHits = lookupTimer(registry, "employees.by-email", "hit");
+        byEmailMisses = lookupTimer(registry, "employees.by-email", "miss");
+    }
+    
+    private static Timer lookupTimer(MeterRegistry registry, String cache, String result) {
+        return Timer.builder("employees.cache.lookup")
+                .description("Time to look an employee up through the cache, including the database load on a miss")
+                .tags("cache", cache, "result", result)
+                .register(registry);
+    }
+    
+    // Lookups before the meters are bound are not timed
+    private static void record(Timer timer, long startNanos) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    // Skipped if anything was written since the load started; otherwise a later invalidation of the id removes it
+    private void put(Employee employee, long writesBefore) {
+        Employee entry = copy(employee);
+        byId.asMap().compute(entry.getId(), (key, current) -> writes.get() == writesBefore ? entry : current);
+        if (entry.getEmail() != null) {
+            // Only a hint: a hit is checked against the email of the cached employee
+            idByEmail.put(entry.getEmail(), entry.getId());
+        }
+    }
+    
+    private static Employee copy(Employee employee) {
+        Employee copy = new Employee();
+        BeanUtils.copyProperties(employee, copy);
+        return copy;
+    }
+}
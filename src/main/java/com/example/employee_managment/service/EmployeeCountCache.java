@@ -0,0 +1,74 @@
+package com.example.employee_managment.service;
+
+import com.example.employee_managment.repository.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate number of employees, for list pages that show a total
+ * without paying for a COUNT(*) (a full index scan on InnoDB) each time.
+ * 
+ * Creates and deletes made through this instance adjust the cached value
+ * right away and mark it stale; a background refresh then replaces it with
+ * an exact count. It is also refreshed once it is older than max-age, to
+ * pick up changes made by other instances or directly in the database. Only
+ * the very first read, before any refresh, counts synchronously.
+ */
+@Component
+public class EmployeeCountCache {
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Value("${app.employee.count.max-age:5m}")
+    private Duration maxAge;
+    
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final AtomicLong count = new AtomicLong(-1);
+    private volatile long refreshedAtNanos;
+    
+    public long getEstimatedCount() {
+        long current = count.get();
+        if (current < 0) {
+            refresh();
+            current = count.get();
+        }
+        return current;
+    }
+    
+    public void added() {
+        adjust(1);
+    }
+    
+    public void removed() {
+        adjust(-1);
+    }
+    
+    /**
+     * Recount if writes happened since the last count or it is older than max-age
+     */
+    @Scheduled(fixedDelayString = "${app.employee.count.refresh-interval-ms:10000}")
+    public void refreshIfStale() {
+        if (stale.get() || System.nanoTime() - refreshedAtNanos > maxAge.toNanos()) {
+            refresh();
+        }
+    }
+    
+    // Cleared before counting, so a write that lands during the count marks it stale again
+    private void refresh() {
+        stale.set(false);
+        count.set(employeeRepository.count());
+        refreshedAtNanos = System.nanoTime();
+    }
+    
+    private void adjust(long delta) {
+        count.updateAndGet(current -> current < 0 ? current : Math.max(0, current + delta));
+        stale.set(true);
+    }
+}
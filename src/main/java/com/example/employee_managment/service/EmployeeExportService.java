@@ -1,16 +1,20 @@
 package com.example.employee_managment.service;
 
-import com.example.employee_managment.model.Employee;
 import com.example.employee_managment.repository.EmployeeRepository;
+import com.example.employee_managment.repository.EmployeeSpecifications;
+import com.example.employee_managment.service.export.CsvOutput;
+import com.example.employee_managment.service.export.CsvRowEncoder;
+import com.example.employee_managment.service.export.ExportProgress;
+import com.example.employee_managment.service.export.ShardedCsvExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -24,37 +28,26 @@ public class EmployeeExportService {
     @Autowired
     private EmployeeRepository employeeRepository;
     
-    private static final int EXPORT_BATCH_SIZE = 5000;
+    @Autowired
+    private ShardedCsvExporter shardedCsvExporter;
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeExportService.class);
+    
+    // Full-table exports always contain every column
+    private static final CsvRowEncoder FULL_EXPORT_ENCODER = CsvRowEncoder.compile(CsvRowEncoder.ALL_FIELDS);
     
     /**
-     * Export all employees to CSV file in batches
-     * This method processes data in chunks to avoid memory issues
+     * Export all employees to CSV file
+     * The id range is split into shards that are read (with keyset pagination)
+     * and encoded in parallel, then appended to the file in id order
      */
     public String exportAllEmployeesToCsv() throws IOException {
         String fileName = "employees_export_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
         Path filePath = Paths.get(System.getProperty("java.io.tmpdir"), fileName);
         
-        try (FileWriter writer = new FileWriter(filePath.toFile())) {
-            // Write CSV header
-            writer.write("ID,First Name,Last Name,Email,Phone Number,Date of Birth,Hire Date,Salary,Position,Department,Created At,Updated At\n");
-            
-            int pageNumber = 0;
-            boolean hasMoreData = true;
-            
-            while (hasMoreData) {
-                Pageable pageable = PageRequest.of(pageNumber, EXPORT_BATCH_SIZE);
-                Page<Employee> employeePage = employeeRepository.findAll(pageable);
-                
-                if (employeePage.hasContent()) {
-                    writeEmployeesToCsv(employeePage.getContent(), writer);
-                    pageNumber++;
-                } else {
-                    hasMoreData = false;
-                }
-                
-                // Optional: Add progress logging
-                System.out.println("Processed page " + pageNumber + " with " + employeePage.getNumberOfElements() + " employees");
-            }
+        try (OutputStream out = Files.newOutputStream(filePath)) {
+            long rowCount = shardedCsvExporter.write(EmployeeSpecifications.all(), FULL_EXPORT_ENCODER, null, out, new ExportProgress());
+            logger.debug("Exported {} employees to {}", rowCount, filePath);
         }
         
         return filePath.toString();
@@ -67,50 +60,27 @@ public class EmployeeExportService {
         String fileName = "employees_" + department + "_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
         Path filePath = Paths.get(System.getProperty("java.io.tmpdir"), fileName);
         
-        try (FileWriter writer = new FileWriter(filePath.toFile())) {
+        try (CsvOutput out = new CsvOutput(Files.newOutputStream(filePath))) {
             // Write CSV header
-            writer.write("ID,First Name,Last Name,Email,Phone Number,Date of Birth,Hire Date,Salary,Position,Department,Created At,Updated At\n");
+            FULL_EXPORT_ENCODER.writeHeader(out);
             
-            List<Employee> employees = employeeRepository.findByDepartment(department);
-            writeEmployeesToCsv(employees, writer);
+            List<Object[]> employees = employeeRepository.findColumnSlice(EmployeeSpecifications.hasDepartment(department),
+                    FULL_EXPORT_ENCODER.getProperties(), Pageable.unpaged(Sort.by("id"))).getContent();
+            writeEmployeesToCsv(employees, out);
         }
         
         return filePath.toString();
     }
     
     /**
-     * Write employee data to CSV
+     * Write employee rows (values of FULL_EXPORT_ENCODER.getProperties()) to CSV
      */
-    private void writeEmployeesToCsv(List<Employee> employees, FileWriter writer) throws IOException {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        
-        for (Employee employee : employees) {
-            writer.write(String.format("\"%d\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%.2f\",\"%s\",\"%s\",\"%s\",\"%s\"\n",
-                employee.getId(),
-                escapeCsvField(employee.getFirstName()),
-                escapeCsvField(employee.getLastName()),
-                escapeCsvField(employee.getEmail()),
-                escapeCsvField(employee.getPhoneNumber()),
-                employee.getDateOfBirth() != null ? employee.getDateOfBirth().format(dateFormatter) : "",
-                employee.getHireDate() != null ? employee.getHireDate().format(dateFormatter) : "",
-                employee.getSalary() != null ? employee.getSalary() : 0.0,
-                escapeCsvField(employee.getPosition()),
-                escapeCsvField(employee.getDepartment()),
-                employee.getCreatedAt() != null ? employee.getCreatedAt().format(dateTimeFormatter) : "",
-                employee.getUpdatedAt() != null ? employee.getUpdatedAt().format(dateTimeFormatter) : ""
-            ));
+    private void writeEmployeesToCsv(List<Object[]> employees, CsvOutput out) throws IOException {
+        for (Object[] employee : employees) {
+            FULL_EXPORT_ENCODER.writeRow(out, employee);
         }
     }
     
-    /**
-     * Escape CSV fields properly
-     */
-    private String escapeCsvField(String field) {
-        if (field == null) return "";
-        return field.replace("\"", "\"\""); // Escape quotes by doubling them
-    }
-    
     /**
      * Get export statistics
      */
@@ -1,14 +1,20 @@
 package com.example.employee_managment.service;
 
 import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.repository.EmployeeCursor;
 import com.example.employee_managment.repository.EmployeeRepository;
+import com.example.employee_managment.repository.EmployeeSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class EmployeeService {
@@ -16,13 +22,21 @@ public class EmployeeService {
     @Autowired
     private EmployeeRepository employeeRepository;
     
+    @Autowired
+    private EmployeeCountCache countCache;
+    
+    @Autowired
+    private EmployeeCache employeeCache;
+    
     // Create a new employee
     public Employee createEmployee(Employee employee) {
         // Check if email already exists
         if (employeeRepository.existsByEmail(employee.getEmail())) {
             throw new RuntimeException("Employee with email " + employee.getEmail() + " already exists");
         }
-        return employeeRepository.save(employee);
+        Employee created = employeeRepository.save(employee);
+        countCache.added();
+        return created;
     }
     
     // Get all employees with pagination
@@ -30,20 +44,36 @@ public class EmployeeService {
         return employeeRepository.findAll(pageable);
     }
     
+    // Approximate number of employees, kept in memory and recounted in the background after writes
+    public long getEstimatedEmployeeCount() {
+        return countCache.getEstimatedCount();
+    }
+    
+    // Get the page of employees after the cursor: an index seek, with no OFFSET and no count query
+    public Slice<Employee> getEmployeesAfter(EmployeeCursor cursor, int size) {
+        return findEmployeesAfter(EmployeeSpecifications.all(), cursor, size);
+    }
+    
+    // Same, for the employees matching the given criteria; walking the cursor reads every match once
+    public Slice<Employee> findEmployeesAfter(Specification<Employee> specification, EmployeeCursor cursor, int size) {
+        return employeeRepository.findSlice(specification.and(cursor.toSpecification()),
+                PageRequest.of(0, size, cursor.toSort()));
+    }
+    
     // Get all employees (deprecated - use paginated version for large datasets)
     @Deprecated
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
     
-    // Get employee by ID
+    // Get employee by ID (served from the employee cache when possible)
     public Optional<Employee> getEmployeeById(Long id) {
-        return employeeRepository.findById(id);
+        return employeeCache.getById(id, employeeRepository::findById);
     }
     
-    // Get employee by email
+    // Get employee by email (served from the employee cache when possible)
     public Optional<Employee> getEmployeeByEmail(String email) {
-        return employeeRepository.findByEmail(email);
+        return employeeCache.getByEmail(email, employeeRepository::findByEmail);
     }
     
     // Update employee
@@ -77,7 +107,9 @@ public class EmployeeService {
             employee.setDepartment(employeeDetails.getDepartment());
         }
         
-        return employeeRepository.save(employee);
+        Employee updated = employeeRepository.save(employee);
+        employeeCache.invalidate(updated);
+        return updated;
     }
     
     // Delete employee
@@ -85,30 +117,78 @@ public class EmployeeService {
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
         employeeRepository.delete(employee);
+        employeeCache.invalidate(employee);
+        countCache.removed();
     }
     
-    // Get employees by department
+    // Get employees by department (unbounded - use the paginated version for large datasets)
     public List<Employee> getEmployeesByDepartment(String department) {
         return employeeRepository.findByDepartment(department);
     }
     
-    // Get employees by position
+    // Get a page of employees by department
+    public Slice<Employee> getEmployeesByDepartment(String department, Pageable pageable) {
+        return employeeRepository.findByDepartment(department, pageable);
+    }
+    
+    // Get employees by position (unbounded - use the paginated version for large datasets)
     public List<Employee> getEmployeesByPosition(String position) {
         return employeeRepository.findByPosition(position);
     }
     
-    // Search employees by name
+    // Get a page of employees by position
+    public Slice<Employee> getEmployeesByPosition(String position, Pageable pageable) {
+        return employeeRepository.findByPosition(position, pageable);
+    }
+    
+    // Search employees by name (unbounded - use the paginated version for large datasets)
     public List<Employee> searchEmployeesByName(String name) {
         return employeeRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name);
     }
     
-    // Get employees with salary greater than
+    // Search a page of employees by name
+    public Slice<Employee> searchEmployeesByName(String name, Pageable pageable) {
+        return employeeRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name, pageable);
+    }
+    
+    // Get employees with salary greater than (unbounded - use the paginated version for large datasets)
     public List<Employee> getEmployeesWithSalaryGreaterThan(Double minSalary) {
         return employeeRepository.findEmployeesWithSalaryGreaterThan(minSalary);
     }
     
+    // Get a page of employees with salary greater than
+    public Slice<Employee> getEmployeesWithSalaryGreaterThan(Double minSalary, Pageable pageable) {
+        return employeeRepository.findEmployeesWithSalaryGreaterThan(minSalary, pageable);
+    }
+    
     // Get employees by department and position
     public List<Employee> findByDepartmentAndPosition(String department, String position) {
         return employeeRepository.findByDepartmentAndPosition(department, position);
     }
-} 
\ No newline at end of file
+    
+    // Find employees matching all given criteria, filtered, sorted and paged in a single query
+    public Slice<Employee> findEmployees(Specification<Employee> specification, Pageable pageable) {
+        return employeeRepository.findSlice(specification, pageable);
+    }
+    
+    // Version of the employees data: changes whenever an employee is created, updated or deleted
+    public String getDataVersion() {
+        return employeeRepository.findMaxUpdatedAt() + "|" + employeeRepository.count();
+    }
+    
+    // Count employees matching the given criteria
+    public long countEmployees(Specification<Employee> specification) {
+        return employeeRepository.count(specification);
+    }
+    
+    // Same as findEmployees, but only the given properties are read; each row holds their values in that order
+    public Slice<Object[]> findEmployeeColumns(Specification<Employee> specification, List<String> properties, Pageable pageable) {
+        return employeeRepository.findColumnSlice(specification, properties, pageable);
+    }
+    
+    // Stream the given properties of matching employees without loading them all into memory (caller must close)
+    public Stream<Object[]> streamEmployeeColumns(Specification<Employee> specification, List<String> properties,
+                                                  Pageable pageable, int fetchSize) {
+        return employeeRepository.streamColumns(specification, properties, pageable, fetchSize);
+    }
+}
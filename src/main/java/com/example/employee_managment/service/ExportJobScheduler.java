@@ -0,0 +1,180 @@
+package com.example.employee_managment.service;
+
+import com.example.employee_managment.repository.ExportHistoryRepository;
+import com.example.employee_managment.service.export.ExportJobClaimer;
+import com.example.employee_managment.service.export.ExportProgressRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs export jobs on a dedicated, fixed set of worker threads.
+ * 
+ * Submitted exports wait as PENDING rows in export_history, which is shared
+ * by every instance. Each worker claims the next export through the
+ * {@link ExportJobClaimer}, so work spreads over all instances no matter
+ * which one received the request, and an export whose instance died is
+ * picked up by another one once its lease expires. Idle workers poll for
+ * work, and are woken right away when an export is submitted locally.
+ * 
+ * At most {@code app.export.workers} exports run at once per instance, so
+ * exports can never take more than that many connections from the pool
+ * shared with regular API traffic. When too many exports are waiting new
+ * submissions are rejected instead of piling up.
+ */
+@Service
+public class ExportJobScheduler {
+    
+    /**
+     * Outcome of {@link #admit}.
+     */
+    public enum Admission {
+        ACCEPTED,
+        QUEUE_FULL,
+        USER_LIMIT_REACHED
+    }
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobScheduler.class);
+    
+    @Autowired
+    private ExportJobService exportJobService;
+    
+    @Autowired
+    private ExportHistoryRepository exportHistoryRepository;
+    
+    @Autowired
+    private ExportJobClaimer claimer;
+    
+    @Autowired
+    private ExportProgressRegistry progressRegistry;
+    
+    @Value("${app.export.workers:2}")
+    private int workers;
+    
+    @Value("${app.export.queue.capacity:100}")
+    private int queueCapacity;
+    
+    @Value("${app.export.queue.max-per-user:10}")
+    private int maxQueuedPerUser;
+    
+    @Value("${app.export.queue.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+    
+    @Value("${app.export.poll-interval:5s}")
+    private Duration pollInterval;
+    
+    @Value("${app.export.shutdown-timeout:20s}")
+    private Duration shutdownTimeout;
+    
+    private final Semaphore wakeUps = new Semaphore(0);
+    private volatile boolean stopping;
+    private ExecutorService executor;
+    
+    @PostConstruct
+    void start() {
+        executor = Executors.newFixedThreadPool(workers, new WorkerThreadFactory());
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::runWorker);
+        }
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Running jobs stop at their next batch and hand their lease back, keeping their last checkpoint;
+        // queued ones stay PENDING. Workers on other instances (or this one after the restart) pick them up.
+        stopping = true;
+        progressRegistry.suspendAll();
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        while (!progressRegistry.isIdle() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Check whether a new export may be queued: there is room in the queue and
+     * in the user's share of it. Counts PENDING exports of every instance.
+     */
+    public Admission admit(String userId) {
+        if (exportHistoryRepository.countPendingExports() >= queueCapacity) {
+            return Admission.QUEUE_FULL;
+        }
+        if (exportHistoryRepository.countPendingExportsByUser(userId) >= maxQueuedPerUser) {
+            return Admission.USER_LIMIT_REACHED;
+        }
+        return Admission.ACCEPTED;
+    }
+    
+    /**
+     * Wake an idle worker after a PENDING export was saved
+     */
+    public void submitted() {
+        wakeUps.release();
+    }
+    
+    /**
+     * Cancel an export that no worker has started yet. Returns false if it is not PENDING any more.
+     */
+    public boolean cancel(String referenceId) {
+        return exportHistoryRepository.cancelPendingExport(referenceId, "Export cancelled by user", LocalDateTime.now()) == 1;
+    }
+    
+    /**
+     * Seconds a rejected client should wait before submitting again
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+    
+    private void runWorker() {
+        while (!stopping && !Thread.currentThread().isInterrupted()) {
+            Optional<String> claimed;
+            try {
+                claimed = claimer.claimNext();
+            } catch (RuntimeException e) {
+                logger.warn("Could not claim export jobs", e);
+                claimed = Optional.empty();
+            }
+            
+            if (claimed.isEmpty()) {
+                try {
+                    wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+            
+            try {
+                exportJobService.processExportJob(claimed.get());
+            } catch (RuntimeException e) {
+                logger.error("Export job {} failed", claimed.get(), e);
+            }
+        }
+    }
+    
+    private static class WorkerThreadFactory implements ThreadFactory {
+        
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, "export-worker-" + threadNumber.getAndIncrement());
+        }
+    }
+}
@@ -2,83 +2,303 @@ package com.example.employee_managment.service;
 
 import com.example.employee_managment.model.Employee;
 import com.example.employee_managment.model.ExportHistory;
+import com.example.employee_managment.repository.EmployeeSort;
+import com.example.employee_managment.repository.EmployeeSpecifications;
 import com.example.employee_managment.repository.ExportHistoryRepository;
 import com.example.employee_managment.dto.ExportRequest;
+import com.example.employee_managment.service.export.CsvOutput;
+import com.example.employee_managment.service.export.CsvRowEncoder;
+import com.example.employee_managment.service.export.ExportArtifactStore;
+import com.example.employee_managment.service.export.ExportCancelledException;
+import com.example.employee_managment.service.export.ExportEventPublisher;
+import com.example.employee_managment.service.export.ExportJobClaimer;
+import com.example.employee_managment.service.export.ExportProgress;
+import com.example.employee_managment.service.export.ExportProgressRegistry;
+import com.example.employee_managment.service.export.ExportStatusRegistry;
+import com.example.employee_managment.service.export.GzipMemberOutputStream;
+import com.example.employee_managment.service.export.ShardedCsvExporter;
+import com.example.employee_managment.service.export.StoredArtifact;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 @Service
 public class ExportJobService {
     
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+    
     @Autowired
     private ExportHistoryRepository exportHistoryRepository;
     
     @Autowired
     private EmployeeService employeeService;
     
+    @Autowired
+    private ExportArtifactStore artifactStore;
+    
+    @Autowired
+    private ShardedCsvExporter shardedCsvExporter;
+    
+    @Autowired
+    private ExportProgressRegistry progressRegistry;
+    
+    @Autowired
+    private ExportJobClaimer claimer;
+    
+    @Autowired
+    private ExportEventPublisher eventPublisher;
+    
+    @Autowired
+    private ExportStatusRegistry statusRegistry;
+    
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+    
+    @Value("${app.export.max-runtime:60m}")
+    private Duration maxRuntime;
+    
+    @Value("${app.export.checkpoint-interval:30s}")
+    private Duration checkpointInterval;
+    
+    @Value("${app.export.delta.lag:5s}")
+    private Duration deltaLag;
+    
+    @Value("${app.export.compression.default:true}")
+    private boolean compressByDefault;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     
+    // Request key -> reference id of the export submitted for it on this instance. Any instance may run it, so
+    // the entry can outlive the job; it is only trusted while the export is still queued or running
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+    
     /**
-     * Process export job asynchronously
+     * Process export job (called from an ExportJobScheduler worker thread once
+     * the ExportJobClaimer has claimed it for this instance). An export that
+     * was interrupted after a checkpoint continues from there.
      */
-    @Async
     public void processExportJob(String referenceId) {
+        ExportProgress progress = null;
         try {
             // Get export history record
             ExportHistory exportHistory = exportHistoryRepository.findByReferenceId(referenceId)
                     .orElseThrow(() -> new RuntimeException("Export not found: " + referenceId));
             
-            // Update status to PROCESSING
-            exportHistory.setStatus(ExportHistory.ExportStatus.PROCESSING);
-            exportHistory.setStartedAt(LocalDateTime.now());
-            exportHistoryRepository.save(exportHistory);
+            // Skip exports that were cancelled while queued or have been claimed by another instance
+            if (exportHistory.getStatus() != ExportHistory.ExportStatus.PENDING
+                    || !claimer.getNodeId().equals(exportHistory.getLeaseOwner())) {
+                return;
+            }
             
-            // Parse filters from JSON
+            // Parse filters from JSON; a delta export only covers rows changed since the previous one
             ExportRequest exportRequest = parseExportRequest(exportHistory);
+            CsvRowEncoder encoder = CsvRowEncoder.compile(exportRequest.getFields());
+            boolean delta = exportRequest.getMode() == ExportRequest.ExportMode.DELTA;
+            Specification<Employee> filters = delta
+                    ? buildFilters(exportRequest).and(changesSincePreviousDelta(exportHistory))
+                    : buildFilters(exportRequest);
+            boolean compressed = isCompressed(exportRequest);
             
-            // Get filtered employees
-            List<Employee> employees = getFilteredEmployees(exportRequest);
+            // Update status to PROCESSING, unless the lease was lost since the claim; a resumed export keeps the
+            // start time and data version of its first run
+            LocalDateTime now = LocalDateTime.now();
+            exportHistory.setStatus(ExportHistory.ExportStatus.PROCESSING);
+            exportHistory.setHeartbeatAt(now);
+            if (exportHistory.getCheckpointKey() == null || !isShardable(exportRequest)) {
+                exportHistory.setStartedAt(now);
+                exportHistory.setDataVersion(employeeService.getDataVersion());
+            }
+            if (exportHistoryRepository.markProcessing(referenceId, claimer.getNodeId(),
+                    exportHistory.getStartedAt(), exportHistory.getDataVersion(), now) == 0) {
+                logger.info("Export {} was claimed by another instance before it started", referenceId);
+                return;
+            }
+            statusRegistry.update(exportHistory);
+            eventPublisher.statusChanged(exportHistory);
             
-            // Update total records
-            exportHistory.setTotalRecords((long) employees.size());
-            exportHistoryRepository.save(exportHistory);
+            // From here on the progress flush renews the lease, and suspends the job if it is lost
+            progress = progressRegistry.start(referenceId);
+            progress.setMaxRuntime(maxRuntime);
             
-            // Generate CSV content
-            String csvContent = generateCsvContent(employees, exportRequest.getFields());
+            boolean hadCheckpoint = exportHistory.getCheckpointKey() != null;
+            StoredArtifact artifact;
+            long totalRecords;
+            try (ExportArtifactStore.ArtifactWriter artifactWriter = openArtifact(exportHistory, exportRequest, compressed)) {
+                Long resumeAfterId = exportHistory.getCheckpointKey();
+                
+                // Write the selected columns of filtered employees straight into the artifact store,
+                // through a gzip stage if it is stored compressed; progress counts the stored bytes
+                OutputStream stored = progress.track(artifactWriter.getOutputStream());
+                GzipMemberOutputStream gzip = compressed ? new GzipMemberOutputStream(stored) : null;
+                OutputStream out = gzip != null ? gzip : stored;
+                try {
+                    if (hadCheckpoint && resumeAfterId == null
+                            && exportHistoryRepository.clearCheckpoint(referenceId, claimer.getNodeId()) == 0) {
+                        progress.suspend("Export lease lost to another instance");
+                        throw new ExportCancelledException("Export lease lost to another instance");
+                    }
+                    
+                    // Count the rows up front so progress can be reported as a percentage
+                    progress.setExpectedRows(countExpectedRows(exportRequest, filters));
+                    long resumedRecords = 0;
+                    if (resumeAfterId != null) {
+                        resumedRecords = exportHistory.getCheckpointRecords();
+                        progress.resumeFrom(resumedRecords, exportHistory.getCheckpointOffset());
+                        logger.info("Resuming export {} after employee id {} ({} rows already written)",
+                                referenceId, resumeAfterId, resumedRecords);
+                    }
+                    
+                    if (delta) {
+                        totalRecords = streamDeltaContent(filters, encoder, out, progress, exportHistory);
+                    } else if (isShardable(exportRequest)) {
+                        totalRecords = resumedRecords + shardedCsvExporter.write(filters, encoder, exportRequest.getShards(),
+                                out, progress, resumeAfterId, checkpointer(referenceId, out, progress, resumedRecords));
+                    } else {
+                        totalRecords = streamCsvContent(exportRequest, encoder, out, progress);
+                    }
+                    if (gzip != null) {
+                        gzip.finish();
+                    }
+                    
+                    // Check the lease once more before publishing the artifact: a job taken over since the last
+                    // flush must not replace the file the new owner is writing
+                    if (!progressRegistry.renew(referenceId, progress)) {
+                        throw new ExportCancelledException("Export lease lost to another instance");
+                    }
+                    artifact = artifactWriter.commit();
+                } catch (IOException | RuntimeException e) {
+                    // The partial artifact is kept for a resume, or left to the instance that took the job over
+                    if (progress.isSuspended() || !progressRegistry.renew(referenceId, progress)) {
+                        artifactWriter.keepPartial();
+                    }
+                    throw e;
+                }
+            }
             
-            // Store CSV data
-            exportHistory.setCsvData(csvContent);
-            exportHistory.setFileSize((long) csvContent.getBytes(StandardCharsets.UTF_8).length);
+            // Record where the export lives instead of the export itself
+            exportHistory.setTotalRecords(totalRecords);
+            exportHistory.setProcessedRecords(totalRecords);
+            exportHistory.setExpectedRecords(progress.getExpectedRows());
+            exportHistory.setFilePath(artifact.getLocation());
+            exportHistory.setFileSize(artifact.getSize());
+            exportHistory.setChecksum(artifact.getChecksum());
+            exportHistory.setLeaseExpiresAt(null);
+            clearCheckpoint(exportHistory);
             
             // Update status to COMPLETED
             exportHistory.setStatus(ExportHistory.ExportStatus.COMPLETED);
             exportHistory.setCompletedAt(LocalDateTime.now());
-            exportHistoryRepository.save(exportHistory);
+            if (exportHistoryRepository.markCompleted(referenceId, claimer.getNodeId(), totalRecords,
+                    exportHistory.getExpectedRecords(), artifact.getLocation(), artifact.getSize(), artifact.getChecksum(),
+                    exportHistory.getWatermarkUpdatedAt(), exportHistory.getWatermarkId(),
+                    exportHistory.getCompletedAt()) == 0) {
+                // Taken over while committing: the new owner's run decides the outcome and replaces the artifact
+                logger.warn("Export {} lost its lease before it could be marked completed", referenceId);
+                return;
+            }
+            statusRegistry.update(exportHistory);
+            eventPublisher.statusChanged(exportHistory);
             
         } catch (Exception e) {
-            // Update status to FAILED
-            ExportHistory exportHistory = exportHistoryRepository.findByReferenceId(referenceId).orElse(null);
-            if (exportHistory != null) {
-                exportHistory.setStatus(ExportHistory.ExportStatus.FAILED);
-                exportHistory.setErrorMessage(e.getMessage());
-                exportHistory.setCompletedAt(LocalDateTime.now());
-                exportHistoryRepository.save(exportHistory);
+            // Shutting down or taken over: hand the export back so a worker resumes it from its last checkpoint
+            // (a lease taken over by another instance is not ours to release, so that does nothing)
+            if (progress != null && progress.isSuspended()) {
+                logger.info("Export {} suspended: {}", referenceId, e.getMessage());
+                claimer.release(referenceId);
+                return;
+            }
+            
+            // Update status to FAILED, unless another instance has taken the export over
+            if (exportHistoryRepository.markFailed(referenceId, claimer.getNodeId(), e.getMessage(),
+                    LocalDateTime.now()) > 0) {
+                exportHistoryRepository.findByReferenceId(referenceId).ifPresent(exportHistory -> {
+                    statusRegistry.update(exportHistory);
+                    eventPublisher.statusChanged(exportHistory);
+                });
             }
+        } finally {
+            statusRegistry.forgetUnfinished(referenceId);
+            progressRegistry.finish(referenceId);
+            releaseInFlight(referenceId);
         }
     }
     
+    /**
+     * Find an export that can serve a request with the given key instead of
+     * running it again: one that is queued or running, or (if allowed) a
+     * completed one built from the current data whose artifact is still stored.
+     * Delta requests must not reuse completed exports: the next delta starts
+     * where the completed one ended.
+     */
+    public Optional<ExportHistory> findReusableExport(String requestKey, boolean allowCompleted) {
+        String running = inFlight.get(requestKey);
+        if (running != null) {
+            // Only while it is still queued or running; a finished export goes through the checks below
+            Optional<ExportHistory> export = exportHistoryRepository.findByReferenceId(running);
+            if (export.isPresent() && isQueuedOrRunning(export.get())) {
+                return export;
+            }
+            inFlight.remove(requestKey, running);
+        }
+        
+        Optional<ExportHistory> latest = exportHistoryRepository.findFirstByRequestHashAndStatusInOrderByCreatedAtDesc(
+                requestKey, EnumSet.of(ExportHistory.ExportStatus.PENDING, ExportHistory.ExportStatus.PROCESSING,
+                        ExportHistory.ExportStatus.COMPLETED));
+        if (latest.isEmpty() || latest.get().getStatus() != ExportHistory.ExportStatus.COMPLETED) {
+            return latest;
+        }
+        
+        ExportHistory completed = latest.get();
+        if (!allowCompleted) {
+            return Optional.empty();
+        }
+        boolean fresh = employeeService.getDataVersion().equals(completed.getDataVersion());
+        return fresh && artifactStore.exists(completed.getFilePath()) ? latest : Optional.empty();
+    }
+    
+    private static boolean isQueuedOrRunning(ExportHistory export) {
+        return export.getStatus() == ExportHistory.ExportStatus.PENDING
+                || export.getStatus() == ExportHistory.ExportStatus.PROCESSING;
+    }
+    
+    /**
+     * Register an export about to be queued for a request key. If another
+     * export is already registered for the key, nothing changes and its
+     * reference id is returned so the caller can attach to it.
+     */
+    public String registerInFlight(String requestKey, String referenceId) {
+        return inFlight.putIfAbsent(requestKey, referenceId);
+    }
+    
+    /**
+     * Forget an export once it has finished, failed or was cancelled or rejected
+     */
+    public void releaseInFlight(String referenceId) {
+        inFlight.values().remove(referenceId);
+    }
+    
     /**
      * Parse export request from JSON filters
      */
@@ -90,253 +310,192 @@ public class ExportJobService {
     }
     
     /**
-     * Get filtered employees based on export request
+     * Reopen the partial artifact of an export that has a checkpoint, or start a
+     * new one. Only id-sorted (sharded) exports write in key order and can be
+     * resumed; anything else, or a checkpoint whose partial artifact is gone,
+     * starts over and has its checkpoint cleared.
      */
-    private List<Employee> getFilteredEmployees(ExportRequest request) {
-        List<Employee> employees;
-        
-        if (request.getEmail() != null) {
-            // Single employee by email
-            employees = employeeService.getEmployeeByEmail(request.getEmail())
-                    .map(List::of)
-                    .orElse(List.of());
-        } else if (request.getName() != null) {
-            // Search by name
-            employees = employeeService.searchEmployeesByName(request.getName());
-        } else if (request.getDepartment() != null && request.getPosition() != null) {
-            // Filter by department and position
-            employees = employeeService.findByDepartmentAndPosition(request.getDepartment(), request.getPosition());
-        } else if (request.getDepartment() != null) {
-            // Filter by department
-            employees = employeeService.getEmployeesByDepartment(request.getDepartment());
-        } else if (request.getPosition() != null) {
-            // Filter by position
-            employees = employeeService.getEmployeesByPosition(request.getPosition());
-        } else if (request.getMinSalary() != null || request.getMaxSalary() != null) {
-            // Filter by salary range
-            employees = List.of();
-            if (request.getMinSalary() != null) {
-                employees = employeeService.getEmployeesWithSalaryGreaterThan(request.getMinSalary());
-            }
-            // Apply max salary filter if specified
-            if (request.getMaxSalary() != null) {
-                employees = employees.stream()
-                    .filter(emp -> emp.getSalary() != null && emp.getSalary() <= request.getMaxSalary())
-                    .toList();
+    private ExportArtifactStore.ArtifactWriter openArtifact(ExportHistory exportHistory, ExportRequest request,
+                                                            boolean compressed) throws IOException {
+        if (exportHistory.getCheckpointKey() != null && isShardable(request)) {
+            Optional<ExportArtifactStore.ArtifactWriter> resumed = artifactStore.resume(
+                    exportHistory.getReferenceId(), exportHistory.getCheckpointOffset(), compressed);
+            if (resumed.isPresent()) {
+                return resumed.get();
             }
-        } else {
-            // No filters - get all employees (limited by size)
-            employees = employeeService.getAllEmployeesPaginated(
-                org.springframework.data.domain.PageRequest.of(
-                    request.getPage() - 1, 
-                    request.getSize()
-                )
-            ).getContent();
         }
-        
-        // Apply sorting to the filtered results
-        List<Employee> sortedEmployees = applySorting(employees, request.getSortBy(), request.getSortDir());
-        
-        // Debug logging
-        System.out.println("=== EXPORT DEBUG ===");
-        System.out.println("Sort By: " + request.getSortBy());
-        System.out.println("Sort Dir: " + request.getSortDir());
-        System.out.println("Total Employees: " + sortedEmployees.size());
-        System.out.println("First 3 employees after sorting:");
-        sortedEmployees.stream().limit(3).forEach(emp -> 
-            System.out.println("  - " + emp.getFirstName() + " " + emp.getLastName() + " (ID: " + emp.getId() + ")")
-        );
-        System.out.println("==================");
-        
-        return sortedEmployees;
+        clearCheckpoint(exportHistory);
+        return artifactStore.create(exportHistory.getReferenceId(), compressed);
     }
     
     /**
-     * Apply sorting to employee list
+     * Whether the artifact is stored gzip-compressed: as requested, or by default.
+     * Clients get the same CSV either way.
      */
-    private List<Employee> applySorting(List<Employee> employees, String sortBy, String sortDir) {
-        if (employees == null || employees.isEmpty() || sortBy == null) {
-            return employees;
-        }
-        
-        // Normalize sortBy field name
-        String normalizedSortBy = sortBy.toLowerCase().trim();
-        
-        System.out.println("Sorting by: '" + normalizedSortBy + "' with direction: '" + sortDir + "'");
-        
-        return employees.stream()
-            .sorted((e1, e2) -> {
-                int comparison = 0;
-                
-                switch (normalizedSortBy) {
-                    case "id":
-                        comparison = Long.compare(e1.getId(), e2.getId());
-                        break;
-                    case "firstname":
-                        comparison = compareStrings(e1.getFirstName(), e2.getFirstName());
-                        break;
-                    case "lastname":
-                        comparison = compareStrings(e1.getLastName(), e2.getLastName());
-                        break;
-                    case "email":
-                        comparison = compareStrings(e1.getEmail(), e2.getEmail());
-                        break;
-                    case "salary":
-                        comparison = compareDoubles(e1.getSalary(), e2.getSalary());
-                        break;
-                    case "department":
-                        comparison = compareStrings(e1.getDepartment(), e2.getDepartment());
-                        break;
-                    case "position":
-                        comparison = compareStrings(e1.getPosition(), e2.getPosition());
-                        break;
-                    case "hiredate":
-                        comparison = compareDates(e1.getHireDate(), e2.getHireDate());
-                        break;
-                    case "dateofbirth":
-                        comparison = compareDates(e1.getDateOfBirth(), e2.getDateOfBirth());
-                        break;
-                    case "createdat":
-                        comparison = compareDateTimes(e1.getCreatedAt(), e2.getCreatedAt());
-                        break;
-                    case "updatedat":
-                        comparison = compareDateTimes(e1.getUpdatedAt(), e2.getUpdatedAt());
-                        break;
-                    default:
-                        System.out.println("Unknown sort field: '" + normalizedSortBy + "', using default sorting");
-                        comparison = 0;
-                }
-                
-                // Apply sort direction
-                boolean isDescending = "desc".equalsIgnoreCase(sortDir);
-                int result = isDescending ? -comparison : comparison;
-                
-                System.out.println("Comparing: " + e1.getFirstName() + " vs " + e2.getFirstName() + 
-                                 " (comparison: " + comparison + ", result: " + result + ")");
-                
-                return result;
-            })
-            .toList();
+    private boolean isCompressed(ExportRequest request) {
+        return request.getCompress() != null ? request.getCompress() : compressByDefault;
     }
     
     /**
-     * Helper methods for comparison
+     * Record a checkpoint after an appended chunk, at most once per checkpoint
+     * interval. The output is flushed first so the partial artifact really
+     * holds every byte up to the recorded offset; a compressed artifact also
+     * ends its gzip member there, so it can be continued with a new one.
      */
-    private int compareStrings(String s1, String s2) {
-        if (s1 == null && s2 == null) return 0;
-        if (s1 == null) return -1;
-        if (s2 == null) return 1;
-        return s1.compareToIgnoreCase(s2);
-    }
-    
-    private int compareDoubles(Double d1, Double d2) {
-        if (d1 == null && d2 == null) return 0;
-        if (d1 == null) return -1;
-        if (d2 == null) return 1;
-        return d1.compareTo(d2);
-    }
-    
-    private int compareDates(java.time.LocalDate d1, java.time.LocalDate d2) {
-        if (d1 == null && d2 == null) return 0;
-        if (d1 == null) return -1;
-        if (d2 == null) return 1;
-        return d1.compareTo(d2);
+    private ShardedCsvExporter.CheckpointListener checkpointer(String referenceId, OutputStream out,
+                                                               ExportProgress progress, long resumedRecords) {
+        AtomicLong lastCheckpoint = new AtomicLong(System.nanoTime());
+        return (lastId, rowsWritten) -> {
+            long now = System.nanoTime();
+            if (now - lastCheckpoint.get() < checkpointInterval.toNanos()) {
+                return;
+            }
+            if (out instanceof GzipMemberOutputStream) {
+                ((GzipMemberOutputStream) out).endMember();
+            } else {
+                out.flush();
+            }
+            exportHistoryRepository.updateCheckpoint(referenceId, claimer.getNodeId(), lastId,
+                    progress.getBytesWritten(), resumedRecords + rowsWritten, LocalDateTime.now());
+            lastCheckpoint.set(now);
+        };
     }
     
-    private int compareDateTimes(java.time.LocalDateTime dt1, java.time.LocalDateTime dt2) {
-        if (dt1 == null && dt2 == null) return 0;
-        if (dt1 == null) return -1;
-        if (dt2 == null) return 1;
-        return dt1.compareTo(dt2);
+    private static void clearCheckpoint(ExportHistory exportHistory) {
+        exportHistory.setCheckpointKey(null);
+        exportHistory.setCheckpointOffset(null);
+        exportHistory.setCheckpointRecords(null);
     }
     
     /**
-     * Generate CSV content with selected fields
+     * Stream the given properties of filtered employees based on export request.
+     * All filters, the sort order and (for unfiltered exports) the page window
+     * are applied by the database in one query, only the selected columns are
+     * read, and rows are read through a cursor so memory use does not grow
+     * with the size of the export.
      */
-    private String generateCsvContent(List<Employee> employees, String fields) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Writer writer = new OutputStreamWriter(baos, StandardCharsets.UTF_8);
+    private long streamCsvContent(ExportRequest request, CsvRowEncoder encoder, OutputStream outputStream,
+                                  ExportProgress progress) throws IOException {
+        Sort sort = EmployeeSort.of(request.getSortBy(), request.getSortDir());
         
-        // Parse selected fields
-        String[] selectedFields = fields.split(",");
+        // Unfiltered exports are limited to the requested page; filtered exports include every match
+        Pageable pageable = hasFilters(request)
+                ? Pageable.unpaged(sort)
+                : PageRequest.of(request.getPage() - 1, request.getSize(), sort);
         
-        // Write CSV header
-        StringBuilder header = new StringBuilder();
-        for (int i = 0; i < selectedFields.length; i++) {
-            if (i > 0) header.append(",");
-            header.append(getFieldDisplayName(selectedFields[i].trim()));
+        try (Stream<Object[]> rows = employeeService.streamEmployeeColumns(
+                buildFilters(request), encoder.getProperties(), pageable, fetchSize)) {
+            CsvOutput out = new CsvOutput(outputStream);
+            long rowCount = writeCsvContent(out, rows.iterator(), encoder, progress);
+            out.flush();
+            return rowCount;
         }
-        header.append("\n");
-        writer.write(header.toString());
+    }
+    
+    /**
+     * Changes a delta export covers: rows past the watermark of the previous
+     * completed delta of the same request (every row for the first one), up to
+     * a cutoff slightly in the past so rows of transactions still in flight are
+     * left for the next delta instead of being skipped. The previous watermark
+     * is carried over in case nothing changed.
+     */
+    private Specification<Employee> changesSincePreviousDelta(ExportHistory exportHistory) {
+        Specification<Employee> changes = EmployeeSpecifications.updatedAtMost(LocalDateTime.now().minus(deltaLag));
         
-        // Write data rows
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        Optional<ExportHistory> previous = exportHistoryRepository.findFirstByRequestHashAndStatusOrderByCompletedAtDesc(
+                exportHistory.getRequestHash(), ExportHistory.ExportStatus.COMPLETED);
+        if (previous.isPresent() && previous.get().getWatermarkUpdatedAt() != null) {
+            LocalDateTime updatedAt = previous.get().getWatermarkUpdatedAt();
+            long id = previous.get().getWatermarkId();
+            changes = changes.and(EmployeeSpecifications.updatedAfter(updatedAt, id));
+            exportHistory.setWatermarkUpdatedAt(updatedAt);
+            exportHistory.setWatermarkId(id);
+        }
+        return changes;
+    }
+    
+    /**
+     * Stream the changed rows of a delta export in (updatedAt, id) order, which
+     * the (updated_at, id) index returns without sorting, and record the last
+     * row's position as the export's watermark.
+     */
+    private long streamDeltaContent(Specification<Employee> changes, CsvRowEncoder encoder, OutputStream outputStream,
+                                    ExportProgress progress, ExportHistory exportHistory) throws IOException {
+        // The watermark columns are read after the selected ones; the encoder ignores extra trailing columns
+        List<String> properties = new ArrayList<>(encoder.getProperties());
+        int updatedAtIndex = properties.size();
+        properties.add("updatedAt");
+        properties.add("id");
         
-        for (Employee employee : employees) {
-            StringBuilder row = new StringBuilder();
-            for (int i = 0; i < selectedFields.length; i++) {
-                if (i > 0) row.append(",");
-                String fieldValue = getFieldValue(employee, selectedFields[i].trim(), dateFormatter, dateTimeFormatter);
-                row.append("\"").append(escapeCsvField(fieldValue)).append("\"");
+        Object[][] last = new Object[1][];
+        try (Stream<Object[]> rows = employeeService.streamEmployeeColumns(
+                changes, properties, Pageable.unpaged(Sort.by("updatedAt", "id")), fetchSize)) {
+            CsvOutput out = new CsvOutput(outputStream);
+            long rowCount = writeCsvContent(out, rows.peek(row -> last[0] = row).iterator(), encoder, progress);
+            out.flush();
+            
+            if (last[0] != null) {
+                exportHistory.setWatermarkUpdatedAt((LocalDateTime) last[0][updatedAtIndex]);
+                exportHistory.setWatermarkId((Long) last[0][updatedAtIndex + 1]);
             }
-            row.append("\n");
-            writer.write(row.toString());
+            return rowCount;
         }
-        
-        writer.flush();
-        writer.close();
-        return baos.toString();
     }
     
     /**
-     * Get field display name
+     * Number of rows the export will contain: every match for filtered and
+     * delta exports, the requested page of the table otherwise
      */
-    private String getFieldDisplayName(String field) {
-        return switch (field.toLowerCase()) {
-            case "id" -> "ID";
-            case "firstname" -> "First Name";
-            case "lastname" -> "Last Name";
-            case "email" -> "Email";
-            case "phonenumber" -> "Phone Number";
-            case "dateofbirth" -> "Date of Birth";
-            case "hiredate" -> "Hire Date";
-            case "salary" -> "Salary";
-            case "position" -> "Position";
-            case "department" -> "Department";
-            case "createdat" -> "Created At";
-            case "updatedat" -> "Updated At";
-            default -> field;
-        };
+    private long countExpectedRows(ExportRequest request, Specification<Employee> filters) {
+        long matches = employeeService.countEmployees(filters);
+        if (hasFilters(request) || request.getMode() == ExportRequest.ExportMode.DELTA) {
+            return matches;
+        }
+        long offset = (long) (request.getPage() - 1) * request.getSize();
+        return Math.max(0, Math.min(request.getSize(), matches - offset));
     }
     
     /**
-     * Get field value from employee
+     * Full exports of every matching row sorted by id can be split into id
+     * ranges and written in parallel by the ShardedCsvExporter
      */
-    private String getFieldValue(Employee employee, String field, DateTimeFormatter dateFormatter, DateTimeFormatter dateTimeFormatter) {
-        return switch (field.toLowerCase()) {
-            case "id" -> String.valueOf(employee.getId());
-            case "firstname" -> employee.getFirstName();
-            case "lastname" -> employee.getLastName();
-            case "email" -> employee.getEmail();
-            case "phonenumber" -> employee.getPhoneNumber();
-            case "dateofbirth" -> employee.getDateOfBirth() != null ? employee.getDateOfBirth().format(dateFormatter) : "";
-            case "hiredate" -> employee.getHireDate() != null ? employee.getHireDate().format(dateFormatter) : "";
-            case "salary" -> employee.getSalary() != null ? String.format("%.2f", employee.getSalary()) : "";
-            case "position" -> employee.getPosition();
-            case "department" -> employee.getDepartment();
-            case "createdat" -> employee.getCreatedAt() != null ? employee.getCreatedAt().format(dateTimeFormatter) : "";
-            case "updatedat" -> employee.getUpdatedAt() != null ? employee.getUpdatedAt().format(dateTimeFormatter) : "";
-            default -> "";
-        };
+    private boolean isShardable(ExportRequest request) {
+        return request.getMode() != ExportRequest.ExportMode.DELTA && hasFilters(request)
+                && EmployeeSort.of(request.getSortBy(), request.getSortDir()).equals(Sort.by("id"));
+    }
+    
+    private Specification<Employee> buildFilters(ExportRequest request) {
+        return EmployeeSpecifications.withFilters(
+                request.getDepartment(), request.getPosition(),
+                request.getMinSalary(), request.getMaxSalary(),
+                request.getName(), request.getEmail());
+    }
+    
+    private boolean hasFilters(ExportRequest request) {
+        return request.getDepartment() != null || request.getPosition() != null ||
+               request.getMinSalary() != null || request.getMaxSalary() != null ||
+               request.getName() != null || request.getEmail() != null;
     }
     
     /**
-     * Escape CSV fields
+     * Write CSV content with selected fields
      */
-    private String escapeCsvField(String field) {
-        if (field == null) return "";
-        return field.replace("\"", "\"\""); // Escape quotes by doubling them
+    private long writeCsvContent(CsvOutput out, Iterator<Object[]> rows, CsvRowEncoder encoder,
+                                 ExportProgress progress) throws IOException {
+        encoder.writeHeader(out);
+        
+        long rowCount = 0;
+        while (rows.hasNext()) {
+            // Stop within one fetch batch of a cancel request
+            if (rowCount % fetchSize == 0) {
+                progress.checkNotCancelled();
+            }
+            Object[] row = rows.next();
+            encoder.writeRow(out, row);
+            progress.addRowsWritten(1);
+            rowCount++;
+        }
+        return rowCount;
     }
     
     /**
@@ -0,0 +1,220 @@
+package com.example.employee_managment.service.export;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Buffered UTF-8 writer for CSV output that formats values straight into a
+ * reusable byte buffer.
+ * 
+ * Strings are encoded character by character with quotes doubled on the fly,
+ * and numbers and dates are written digit by digit, so writing a cell does not
+ * allocate intermediate Strings.
+ */
+public class CsvOutput implements Flushable, Closeable {
+    
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    
+    // Largest value formatted on the fast path; see writeMoney
+    private static final double FAST_MONEY_LIMIT = 1e9;
+    private static final double ROUNDING_TIE_TOLERANCE = 1e-4;
+    
+    private final OutputStream out;
+    private final byte[] buffer;
+    private final byte[] digits = new byte[20];
+    private int position;
+    private long bytesWritten;
+    
+    public CsvOutput(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+    
+    public CsvOutput(OutputStream out, int bufferSize) {
+        // Room for the longest single code point or number so those never straddle a flush
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, 64)];
+    }
+    
+    /**
+     * Total number of bytes written so far, including bytes still in the buffer.
+     */
+    public long getBytesWritten() {
+        return bytesWritten + position;
+    }
+    
+    public void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+    
+    /**
+     * Writes a string as-is (UTF-8 encoded, no quoting or escaping).
+     */
+    public void writeRaw(String value) throws IOException {
+        writeUtf8(value, false);
+    }
+    
+    /**
+     * Writes a string with every double quote doubled, as required inside a quoted CSV cell.
+     */
+    public void writeEscaped(String value) throws IOException {
+        writeUtf8(value, true);
+    }
+    
+    public void writeLong(long value) throws IOException {
+        ensureCapacity(20);
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                writeRaw(Long.toString(value));
+                return;
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value > 0);
+        while (count > 0) {
+            buffer[position++] = digits[--count];
+        }
+    }
+    
+    /**
+     * Writes a value with exactly two decimal places, producing the same text as
+     * {@code String.format(Locale.ROOT, "%.2f", value)}.
+     */
+    public void writeMoney(double value) throws IOException {
+        // Values that are negative, huge or within rounding error of a half cent
+        // go through the JDK formatter so the output always matches it exactly
+        if (!(value >= 0 && value < FAST_MONEY_LIMIT)) {
+            writeRaw(String.format(Locale.ROOT, "%.2f", value));
+            return;
+        }
+        double scaled = value * 100;
+        long floor = (long) scaled;
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) < ROUNDING_TIE_TOLERANCE) {
+            writeRaw(String.format(Locale.ROOT, "%.2f", value));
+            return;
+        }
+        long cents = fraction > 0.5 ? floor + 1 : floor;
+        writeLong(cents / 100);
+        ensureCapacity(3);
+        int remainder = (int) (cents % 100);
+        buffer[position++] = '.';
+        buffer[position++] = (byte) ('0' + remainder / 10);
+        buffer[position++] = (byte) ('0' + remainder % 10);
+    }
+    
+    /**
+     * Writes a date as yyyy-MM-dd.
+     */
+    public void writeDate(LocalDate date) throws IOException {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            writeRaw(date.toString());
+            return;
+        }
+        ensureCapacity(10);
+        writeDigits(year, 4);
+        buffer[position++] = '-';
+        writeDigits(date.getMonthValue(), 2);
+        buffer[position++] = '-';
+        writeDigits(date.getDayOfMonth(), 2);
+    }
+    
+    /**
+     * Writes a timestamp as yyyy-MM-dd HH:mm:ss.
+     */
+    public void writeDateTime(LocalDateTime dateTime) throws IOException {
+        writeDate(dateTime.toLocalDate());
+        ensureCapacity(9);
+        buffer[position++] = ' ';
+        writeDigits(dateTime.getHour(), 2);
+        buffer[position++] = ':';
+        writeDigits(dateTime.getMinute(), 2);
+        buffer[position++] = ':';
+        writeDigits(dateTime.getSecond(), 2);
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+    
+    private void writeDigits(int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+    
+    private void writeUtf8(String value, boolean escapeQuotes) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (position + 2 > buffer.length) {
+                    drain();
+                }
+                buffer[position++] = (byte) c;
+                if (escapeQuotes && c == '"') {
+                    buffer[position++] = '"';
+                }
+            } else {
+                ensureCapacity(4);
+                if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // Unpaired surrogate: same replacement String.getBytes(UTF_8) uses
+                    buffer[position++] = '?';
+                } else {
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+    }
+    
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            drain();
+        }
+    }
+    
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            bytesWritten += position;
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.Employee;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CSV encoder shared by every export path.
+ * 
+ * The requested field list is parsed once into an array of column writers;
+ * encoding a row is then a loop over that array with no per-cell string
+ * matching. Every cell is quoted, rows end with a newline, and the header
+ * row lists the display names of the selected fields.
+ * 
+ * Rows can be encoded from entities or from projection tuples holding only
+ * the columns in {@link #getProperties()}, so exports never need to load
+ * fields that were not requested.
+ * 
+ * Instances are immutable and can be shared between threads; the
+ * {@link CsvOutput} passed in is not.
+ */
+public class CsvRowEncoder {
+    
+    /**
+     * Every field, in the column order of the full employee export.
+     */
+    public static final String ALL_FIELDS = String.join(",",
+            Arrays.stream(ExportField.values()).map(ExportField::getProperty).toList());
+    
+    private final String[] headers;
+    private final ExportField[] fields;
+    private final ColumnWriter[] columns;
+    private final List<String> properties;
+    private final int[] tupleIndexes;
+    
+    private CsvRowEncoder(String[] headers, ExportField[] fields, ColumnWriter[] columns,
+                          List<String> properties, int[] tupleIndexes) {
+        this.headers = headers;
+        this.fields = fields;
+        this.columns = columns;
+        this.properties = properties;
+        this.tupleIndexes = tupleIndexes;
+    }
+    
+    /**
+     * Compiles a comma-separated field list (e.g. "id,firstName,salary").
+     * Unknown field names produce a column with the name as header and empty values.
+     */
+    public static CsvRowEncoder compile(String fieldList) {
+        String[] names = fieldList.split(",");
+        String[] headers = new String[names.length];
+        ExportField[] fields = new ExportField[names.length];
+        ColumnWriter[] columns = new ColumnWriter[names.length];
+        List<String> properties = new ArrayList<>();
+        int[] tupleIndexes = new int[names.length];
+        
+        for (int i = 0; i < names.length; i++) {
+            ExportField field = ExportField.fromName(names[i]);
+            fields[i] = field;
+            headers[i] = field != null ? field.getHeader() : names[i].trim();
+            columns[i] = field != null ? columnWriter(field) : EMPTY_COLUMN;
+            
+            // A field requested twice is selected once and read from the same tuple slot
+            if (field == null) {
+                tupleIndexes[i] = -1;
+            } else {
+                int index = properties.indexOf(field.getProperty());
+                if (index < 0) {
+                    index = properties.size();
+                    properties.add(field.getProperty());
+                }
+                tupleIndexes[i] = index;
+            }
+        }
+        
+        // Every row still needs one column so rows can be counted when no field is known
+        if (properties.isEmpty()) {
+            properties.add(ExportField.ID.getProperty());
+        }
+        return new CsvRowEncoder(headers, fields, columns, List.copyOf(properties), tupleIndexes);
+    }
+    
+    /**
+     * Selected fields in column order; unknown names are null.
+     */
+    public ExportField[] getFields() {
+        return fields.clone();
+    }
+    
+    /**
+     * Entity properties to select for {@link #writeRow(CsvOutput, Object[])},
+     * in tuple order. Never empty.
+     */
+    public List<String> getProperties() {
+        return properties;
+    }
+    
+    public void writeHeader(CsvOutput out) throws IOException {
+        for (int i = 0; i < headers.length; i++) {
+            if (i > 0) out.writeByte(',');
+            out.writeRaw(headers[i]);
+        }
+        out.writeByte('\n');
+    }
+    
+    public void writeRow(CsvOutput out, Employee employee) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) out.writeByte(',');
+            out.writeByte('"');
+            columns[i].write(out, fields[i] != null ? fields[i].valueOf(employee) : null);
+            out.writeByte('"');
+        }
+        out.writeByte('\n');
+    }
+    
+    /**
+     * Writes a row from a tuple holding the values of {@link #getProperties()}.
+     */
+    public void writeRow(CsvOutput out, Object[] tuple) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) out.writeByte(',');
+            out.writeByte('"');
+            columns[i].write(out, tupleIndexes[i] >= 0 ? tuple[tupleIndexes[i]] : null);
+            out.writeByte('"');
+        }
+        out.writeByte('\n');
+    }
+    
+    /**
+     * Writes the contents of one cell, without the surrounding quotes.
+     * Null values are written as an empty cell.
+     */
+    @FunctionalInterface
+    private interface ColumnWriter {
+        void write(CsvOutput out, Object value) throws IOException;
+    }
+    
+    private static final ColumnWriter EMPTY_COLUMN = (out, value) -> { };
+    
+    private static ColumnWriter columnWriter(ExportField field) {
+        return switch (field.getValueType()) {
+            case TEXT -> (out, value) -> {
+                if (value != null) out.writeEscaped((String) value);
+            };
+            case NUMBER -> (out, value) -> {
+                if (value != null) out.writeLong(((Number) value).longValue());
+            };
+            case MONEY -> (out, value) -> {
+                if (value != null) out.writeMoney(((Number) value).doubleValue());
+            };
+            case DATE -> (out, value) -> {
+                if (value != null) out.writeDate((LocalDate) value);
+            };
+            case DATE_TIME -> (out, value) -> {
+                if (value != null) out.writeDateTime((LocalDateTime) value);
+            };
+        };
+    }
+}
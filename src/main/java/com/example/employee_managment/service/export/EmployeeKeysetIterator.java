@@ -0,0 +1,141 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.repository.EmployeeRepository;
+import com.example.employee_managment.repository.EmployeeSpecifications;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongSupplier;
+
+/**
+ * Iterates over the employees table in id order, one batch at a time, using
+ * keyset (seek) pagination: every batch is {@code WHERE id > :lastId ORDER BY id LIMIT n}.
+ * Only employees matching the given filters are returned and only the given
+ * properties are selected; each row holds their values in that order. The
+ * properties must include {@code id}.
+ * 
+ * Unlike OFFSET paging, each batch is a primary key range scan, so the cost of
+ * the last batch is the same as the cost of the first one.
+ * 
+ * The batch size adapts to the measured fetch latency: it grows while batches
+ * come back well under the target latency and shrinks when they exceed it.
+ */
+public class EmployeeKeysetIterator implements Iterator<List<Object[]>> {
+    
+    public static final int DEFAULT_INITIAL_BATCH_SIZE = 1000;
+    public static final int DEFAULT_MIN_BATCH_SIZE = 250;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 20000;
+    public static final long DEFAULT_TARGET_LATENCY_MILLIS = 250;
+    
+    private static final Sort ID_ORDER = Sort.by("id");
+    
+    private final EmployeeRepository employeeRepository;
+    private final Specification<Employee> filters;
+    private final List<String> properties;
+    private final int idIndex;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetLatencyNanos;
+    private final LongSupplier nanoClock;
+    
+    private long lastId;
+    private int batchSize;
+    private List<Object[]> nextBatch;
+    private boolean exhausted;
+    
+    public EmployeeKeysetIterator(EmployeeRepository employeeRepository, Specification<Employee> filters,
+                                  List<String> properties, long startAfterId) {
+        this(employeeRepository, filters, properties, startAfterId, DEFAULT_INITIAL_BATCH_SIZE, DEFAULT_MIN_BATCH_SIZE,
+                DEFAULT_MAX_BATCH_SIZE, DEFAULT_TARGET_LATENCY_MILLIS, System::nanoTime);
+    }
+    
+    public EmployeeKeysetIterator(EmployeeRepository employeeRepository, Specification<Employee> filters,
+                                  List<String> properties, long startAfterId,
+                                  int initialBatchSize, int minBatchSize, int maxBatchSize,
+                                  long targetLatencyMillis, LongSupplier nanoClock) {
+        if (minBatchSize <= 0 || minBatchSize > maxBatchSize) {
+            throw new IllegalArgumentException("Invalid batch size bounds: " + minBatchSize + ".." + maxBatchSize);
+        }
+        this.idIndex = properties.indexOf("id");
+        if (idIndex < 0) {
+            throw new IllegalArgumentException("Keyset iteration needs the id property: " + properties);
+        }
+        this.employeeRepository = employeeRepository;
+        this.filters = filters;
+        this.properties = properties;
+        this.lastId = startAfterId;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, initialBatchSize));
+        this.targetLatencyNanos = targetLatencyMillis * 1_000_000L;
+        this.nanoClock = nanoClock;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (nextBatch == null && !exhausted) {
+            fetchNextBatch();
+        }
+        return nextBatch != null;
+    }
+    
+    @Override
+    public List<Object[]> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<Object[]> batch = nextBatch;
+        nextBatch = null;
+        return batch;
+    }
+    
+    /**
+     * Id of the last employee returned so far (the current keyset position).
+     */
+    public long getLastId() {
+        return lastId;
+    }
+    
+    /**
+     * Batch size that will be used for the next fetch.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    private void fetchNextBatch() {
+        long start = nanoClock.getAsLong();
+        Slice<Object[]> slice = employeeRepository.findColumnSlice(
+                filters.and(EmployeeSpecifications.idGreaterThan(lastId)), properties, PageRequest.of(0, batchSize, ID_ORDER));
+        long elapsed = nanoClock.getAsLong() - start;
+        
+        List<Object[]> batch = slice.getContent();
+        if (batch.isEmpty()) {
+            exhausted = true;
+            return;
+        }
+        
+        lastId = ((Number) batch.get(batch.size() - 1)[idIndex]).longValue();
+        nextBatch = batch;
+        
+        if (!slice.hasNext()) {
+            exhausted = true;
+        } else {
+            adjustBatchSize(elapsed);
+        }
+    }
+    
+    private void adjustBatchSize(long elapsedNanos) {
+        if (elapsedNanos > targetLatencyNanos) {
+            batchSize = Math.max(minBatchSize, batchSize / 2);
+        } else if (elapsedNanos < targetLatencyNanos / 2) {
+            batchSize = Math.min(maxBatchSize, batchSize * 2);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.employee_managment.service.export;
+
+import org.springframework.core.io.Resource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Storage for generated export files (artifacts).
+ * 
+ * Export payloads are written here instead of into the export_history table;
+ * the history row only keeps the artifact location, size and checksum.
+ * Implementations decide where the bytes live (local disk, object storage, ...).
+ */
+public interface ExportArtifactStore {
+    
+    /**
+     * Opens a new artifact for the given export. Bytes written to the returned
+     * writer only become visible once {@link ArtifactWriter#commit()} succeeds.
+     * A compressed artifact is stored under a location ending in ".gz"; the
+     * caller writes the gzip data itself.
+     */
+    ArtifactWriter create(String referenceId, boolean compressed) throws IOException;
+    
+    default ArtifactWriter create(String referenceId) throws IOException {
+        return create(referenceId, false);
+    }
+    
+    /**
+     * Reopens the partial artifact an interrupted export left behind, keeping its
+     * first {@code offset} bytes and discarding the rest, so writing continues
+     * from a checkpoint. Returns empty if no partial artifact of at least that
+     * length exists; the export then has to start over.
+     */
+    Optional<ArtifactWriter> resume(String referenceId, long offset, boolean compressed) throws IOException;
+    
+    default Optional<ArtifactWriter> resume(String referenceId, long offset) throws IOException {
+        return resume(referenceId, offset, false);
+    }
+    
+    /**
+     * Whether the artifact at the given location holds gzip-compressed CSV.
+     */
+    default boolean isCompressed(String location) {
+        return location != null && location.endsWith(".gz");
+    }
+    
+    /**
+     * Returns a streamable resource for a committed artifact.
+     */
+    Resource load(String location) throws IOException;
+    
+    /**
+     * Checks whether a committed artifact still exists.
+     */
+    boolean exists(String location);
+    
+    /**
+     * Deletes a committed artifact. Deleting a missing artifact is not an error.
+     */
+    void delete(String location) throws IOException;
+    
+    /**
+     * Handle for an artifact that is being written.
+     * Closing a writer that was never committed discards the partial artifact.
+     */
+    interface ArtifactWriter extends Closeable {
+        
+        OutputStream getOutputStream();
+        
+        /**
+         * Flushes and publishes the artifact.
+         */
+        StoredArtifact commit() throws IOException;
+        
+        /**
+         * Keeps the partial artifact when the writer is closed without being
+         * committed, so a later {@link ExportArtifactStore#resume} can continue it.
+         */
+        void keepPartial();
+    }
+}
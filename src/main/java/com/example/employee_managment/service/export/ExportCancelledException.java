@@ -0,0 +1,15 @@
+package com.example.employee_managment.service.export;
+
+import java.io.IOException;
+
+/**
+ * Thrown from inside a running export once it has been cancelled, so the
+ * job unwinds through the same cleanup as any other I/O failure: the row
+ * cursor and its connection are closed and the partial artifact discarded.
+ */
+public class ExportCancelledException extends IOException {
+    
+    public ExportCancelledException(String message) {
+        super(message);
+    }
+}
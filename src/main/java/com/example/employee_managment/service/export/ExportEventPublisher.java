@@ -0,0 +1,263 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.dto.ExportResponse;
+import com.example.employee_managment.dto.ExportSummary;
+import com.example.employee_managment.model.ExportHistory;
+import com.example.employee_managment.repository.ExportHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes state transitions and progress of exports to clients watching them
+ * over Server-Sent Events, instead of having them poll the status endpoint.
+ * 
+ * A watcher is just an {@link SseEmitter} on an async request: it holds no
+ * thread between events, so thousands can be open at once. Jobs running on
+ * this instance publish their transitions as they happen, and once a second
+ * every watched job gets a progress event: from the live counters when it
+ * runs here, otherwise from one query covering all the other watched exports.
+ * Events are only sent when something changed. A watch ends with the
+ * COMPLETED or FAILED event.
+ */
+@Component
+public class ExportEventPublisher {
+    
+    public static final String STATUS_EVENT = "status";
+    public static final String PROGRESS_EVENT = "progress";
+    
+    @Autowired
+    private ExportHistoryRepository exportHistoryRepository;
+    
+    @Autowired
+    private ExportProgressRegistry progressRegistry;
+    
+    @Value("${app.export.events.timeout:30m}")
+    private Duration timeout;
+    
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+    
+    /**
+     * Open an event stream for an export, starting with its current state, or empty if there is no such export
+     */
+    public Optional<SseEmitter> subscribe(String referenceId) {
+        Optional<ExportSummary> export = exportHistoryRepository.findSummaryByReferenceId(referenceId);
+        if (export.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        ExportResponse current = statusEvent(export.get());
+        Optional<ExportProgress> live = progressRegistry.get(referenceId);
+        if (live.isPresent()) {
+            applyProgress(current, live.get());
+        }
+        
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        if (isFinished(current.getStatus())) {
+            // Nothing more will happen; send the outcome and end the stream right away
+            send(emitter, STATUS_EVENT, current);
+            emitter.complete();
+            return Optional.of(emitter);
+        }
+        
+        emitter.onCompletion(() -> unsubscribe(referenceId, emitter));
+        emitter.onTimeout(() -> unsubscribe(referenceId, emitter));
+        emitter.onError(e -> unsubscribe(referenceId, emitter));
+        send(emitter, STATUS_EVENT, current);
+        
+        // Joined inside compute, so the final event cannot remove the watch between looking it up and joining it.
+        // If the export finished after it was read above, the watch is already gone and a new one is started from
+        // that state; the next pushUpdates finds the outcome in export_history and sends it.
+        watches.compute(referenceId, (id, existing) -> {
+            Watch watch = existing;
+            if (watch == null) {
+                watch = new Watch();
+                watch.lastStatus = current.getStatus();
+                watch.lastProcessed = current.getProcessedRecords() != null ? current.getProcessedRecords() : 0;
+            }
+            watch.emitters.add(emitter);
+            return watch;
+        });
+        return Optional.of(emitter);
+    }
+    
+    /**
+     * Tell the watchers of an export that its state changed; the COMPLETED or FAILED event ends their streams
+     */
+    public void statusChanged(ExportHistory export) {
+        Watch watch = watches.get(export.getReferenceId());
+        if (watch == null) {
+            return;
+        }
+        ExportResponse event = statusEvent(export.getReferenceId(), export.getStatus(), export.getErrorMessage(),
+                export.getTotalRecords(), export.getFileSize(), export.getCreatedAt());
+        publish(export.getReferenceId(), watch, STATUS_EVENT, event);
+    }
+    
+    /**
+     * Tell the watchers of a cancelled PENDING export that it failed
+     */
+    public void cancelled(String referenceId, String reason) {
+        Watch watch = watches.get(referenceId);
+        if (watch != null) {
+            publish(referenceId, watch, STATUS_EVENT,
+                    statusEvent(referenceId, ExportHistory.ExportStatus.FAILED, reason, null, null, null));
+        }
+    }
+    
+    /**
+     * Send a progress event for every watched export whose progress moved, and a
+     * status event for those that changed state on another instance
+     */
+    @Scheduled(fixedDelayString = "${app.export.events.interval-ms:1000}")
+    public void pushUpdates() {
+        List<String> elsewhere = new ArrayList<>();
+        watches.forEach((referenceId, watch) -> {
+            Optional<ExportProgress> live = progressRegistry.get(referenceId);
+            if (live.isEmpty()) {
+                elsewhere.add(referenceId);
+            } else if (live.get().getRowsWritten() != watch.lastProcessed) {
+                ExportResponse event = statusEvent(referenceId, ExportHistory.ExportStatus.PROCESSING, null, null, null, null);
+                applyProgress(event, live.get());
+                publish(referenceId, watch, PROGRESS_EVENT, event);
+            }
+        });
+        if (elsewhere.isEmpty()) {
+            return;
+        }
+        
+        for (ExportSummary export : exportHistoryRepository.findSummariesByReferenceIdIn(elsewhere)) {
+            Watch watch = watches.get(export.getReferenceId());
+            if (watch == null) {
+                continue;
+            }
+            long processed = export.getProcessedRecords() != null ? export.getProcessedRecords() : 0;
+            if (export.getStatus() != watch.lastStatus) {
+                publish(export.getReferenceId(), watch, STATUS_EVENT, statusEvent(export));
+            } else if (export.getStatus() == ExportHistory.ExportStatus.PROCESSING && processed != watch.lastProcessed) {
+                publish(export.getReferenceId(), watch, PROGRESS_EVENT, statusEvent(export));
+            }
+        }
+    }
+    
+    /**
+     * Number of open event streams
+     */
+    public int getWatcherCount() {
+        return watches.values().stream().mapToInt(watch -> watch.emitters.size()).sum();
+    }
+    
+    private void publish(String referenceId, Watch watch, String name, ExportResponse event) {
+        watch.lastStatus = event.getStatus();
+        watch.lastProcessed = event.getProcessedRecords() != null ? event.getProcessedRecords() : 0;
+        boolean finished = isFinished(event.getStatus());
+        if (finished) {
+            // Atomic with joining in subscribe: every emitter that joined this watch is in the set sent to below
+            watches.remove(referenceId, watch);
+        }
+        for (SseEmitter emitter : watch.emitters) {
+            if (send(emitter, name, event) && finished) {
+                emitter.complete();
+            }
+        }
+    }
+    
+    // A client that went away is dropped; its emitter is completed so the async request is released
+    private boolean send(SseEmitter emitter, String name, ExportResponse event) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(event, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+    
+    private void unsubscribe(String referenceId, SseEmitter emitter) {
+        watches.computeIfPresent(referenceId, (id, watch) -> {
+            watch.emitters.remove(emitter);
+            return watch.emitters.isEmpty() ? null : watch;
+        });
+    }
+    
+    private static boolean isFinished(ExportHistory.ExportStatus status) {
+        return status == ExportHistory.ExportStatus.COMPLETED || status == ExportHistory.ExportStatus.FAILED;
+    }
+    
+    private static ExportResponse statusEvent(ExportSummary export) {
+        ExportResponse event = statusEvent(export.getReferenceId(), export.getStatus(), export.getErrorMessage(),
+                export.getTotalRecords(), export.getFileSize(), export.getCreatedAt());
+        if (export.getStatus() == ExportHistory.ExportStatus.PROCESSING) {
+            // Last flushed counters of a job running on another instance
+            long processed = export.getProcessedRecords() != null ? export.getProcessedRecords() : 0;
+            long expected = export.getExpectedRecords() != null ? export.getExpectedRecords() : -1;
+            long elapsedMillis = export.getStartedAt() != null
+                    ? Duration.between(export.getStartedAt(), LocalDateTime.now()).toMillis() : 0;
+            applyProgress(event, processed, expected, elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : 0);
+        }
+        return event;
+    }
+    
+    private static ExportResponse statusEvent(String referenceId, ExportHistory.ExportStatus status, String errorMessage,
+                                              Long totalRecords, Long fileSize, LocalDateTime createdAt) {
+        ExportResponse event;
+        switch (status) {
+            case PENDING:
+                event = new ExportResponse(referenceId, status, "Export is queued for processing");
+                break;
+            case PROCESSING:
+                event = new ExportResponse(referenceId, status, "Export is currently being processed");
+                break;
+            case COMPLETED:
+                event = new ExportResponse(referenceId, status, "Export completed successfully");
+                event.setTotalRecords(totalRecords);
+                event.setFileSize(fileSize);
+                event.setDownloadUrl("/api/exports/" + referenceId);
+                break;
+            default:
+                event = new ExportResponse(referenceId, status, "Export failed: " + errorMessage);
+        }
+        if (createdAt != null) {
+            event.setCreatedAt(createdAt);
+        }
+        return event;
+    }
+    
+    private static void applyProgress(ExportResponse event, ExportProgress progress) {
+        applyProgress(event, progress.getRowsWritten(), progress.getExpectedRows(), progress.getRowsPerSecond());
+    }
+    
+    private static void applyProgress(ExportResponse event, long processed, long expected, double rowsPerSecond) {
+        event.setProcessedRecords(processed);
+        if (expected >= 0) {
+            event.setTotalRecords(expected);
+        }
+        event.setPercentComplete(ExportProgress.percentComplete(processed, expected));
+        event.setRowsPerSecond(Math.round(rowsPerSecond * 10) / 10.0);
+        
+        Long secondsRemaining = ExportProgress.estimatedSecondsRemaining(processed, expected, rowsPerSecond);
+        if (secondsRemaining != null) {
+            event.setEstimatedCompletion(LocalDateTime.now().plusSeconds(secondsRemaining));
+        }
+    }
+    
+    // Emitters of one export and what they were last sent, so unchanged state is not sent again
+    private static class Watch {
+        final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+        volatile ExportHistory.ExportStatus lastStatus;
+        volatile long lastProcessed = -1;
+    }
+}
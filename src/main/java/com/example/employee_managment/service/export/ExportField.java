@@ -0,0 +1,72 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.Employee;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Employee fields that can be selected for an export, with their CSV header,
+ * entity property and how their values are formatted.
+ */
+public enum ExportField {
+    
+    ID("id", "ID", ValueType.NUMBER, Employee::getId),
+    FIRST_NAME("firstName", "First Name", ValueType.TEXT, Employee::getFirstName),
+    LAST_NAME("lastName", "Last Name", ValueType.TEXT, Employee::getLastName),
+    EMAIL("email", "Email", ValueType.TEXT, Employee::getEmail),
+    PHONE_NUMBER("phoneNumber", "Phone Number", ValueType.TEXT, Employee::getPhoneNumber),
+    DATE_OF_BIRTH("dateOfBirth", "Date of Birth", ValueType.DATE, Employee::getDateOfBirth),
+    HIRE_DATE("hireDate", "Hire Date", ValueType.DATE, Employee::getHireDate),
+    SALARY("salary", "Salary", ValueType.MONEY, Employee::getSalary),
+    POSITION("position", "Position", ValueType.TEXT, Employee::getPosition),
+    DEPARTMENT("department", "Department", ValueType.TEXT, Employee::getDepartment),
+    CREATED_AT("createdAt", "Created At", ValueType.DATE_TIME, Employee::getCreatedAt),
+    UPDATED_AT("updatedAt", "Updated At", ValueType.DATE_TIME, Employee::getUpdatedAt);
+    
+    /**
+     * How a field value is written to CSV.
+     */
+    public enum ValueType {
+        TEXT,       // escaped string
+        NUMBER,     // whole number
+        MONEY,      // two decimal places
+        DATE,       // yyyy-MM-dd
+        DATE_TIME   // yyyy-MM-dd HH:mm:ss
+    }
+    
+    private static final Map<String, ExportField> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toMap(field -> field.property.toLowerCase(), Function.identity()));
+    
+    private final String property;
+    private final String header;
+    private final ValueType valueType;
+    private final Function<Employee, Object> accessor;
+    
+    ExportField(String property, String header, ValueType valueType, Function<Employee, Object> accessor) {
+        this.property = property;
+        this.header = header;
+        this.valueType = valueType;
+        this.accessor = accessor;
+    }
+    
+    /**
+     * Looks up a field by its request name, ignoring case and surrounding whitespace.
+     * Returns null for unknown names.
+     */
+    public static ExportField fromName(String name) {
+        return name == null ? null : BY_NAME.get(name.trim().toLowerCase());
+    }
+    
+    public String getProperty() { return property; }
+    
+    public String getHeader() { return header; }
+    
+    public ValueType getValueType() { return valueType; }
+    
+    public Object valueOf(Employee employee) {
+        return accessor.apply(employee);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.ExportHistory;
+import com.example.employee_managment.repository.ExportHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Hands exports to the workers of every instance, using export_history as the queue.
+ * 
+ * A worker claims an export by locking the oldest claimable rows with
+ * SELECT ... FOR UPDATE SKIP LOCKED, so concurrent claims on any instance
+ * never wait for each other or pick the same row, and taking a lease on one
+ * of them. Between the locked rows, the export of the user with the fewest
+ * exports running wins, so one busy user cannot starve everybody else.
+ * 
+ * The lease is renewed by the progress flush while the export runs. If the
+ * instance dies the lease expires and the export becomes claimable again; it
+ * is then resumed from its last checkpoint.
+ */
+@Component
+public class ExportJobClaimer {
+    
+    @Autowired
+    private ExportHistoryRepository exportHistoryRepository;
+    
+    @Value("${app.export.lease.duration:2m}")
+    private Duration leaseDuration;
+    
+    @Value("${app.export.lease.candidates:20}")
+    private int candidates;
+    
+    private final String nodeId;
+    
+    public ExportJobClaimer(@Value("${app.export.node-id:}") String nodeId) {
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+    
+    /**
+     * Claims the next export for a worker on this instance and returns its reference id,
+     * or empty if there is nothing to do. The export is left PENDING for
+     * {@code ExportJobService.processExportJob}, with this instance as its lease owner.
+     */
+    @Transactional
+    public Optional<String> claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ExportHistory> claimable = exportHistoryRepository.lockClaimableExports(now, candidates);
+        if (claimable.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        ExportHistory selected = pickFairest(claimable, runningByUser());
+        
+        // An export whose lease expired while PROCESSING goes back to PENDING and resumes from its checkpoint
+        selected.setStatus(ExportHistory.ExportStatus.PENDING);
+        selected.setLeaseOwner(nodeId);
+        selected.setLeaseExpiresAt(leaseExpiry(now));
+        exportHistoryRepository.save(selected);
+        return Optional.of(selected.getReferenceId());
+    }
+    
+    /**
+     * Gives up this instance's lease on an export so any worker can claim it right away
+     */
+    public void release(String referenceId) {
+        exportHistoryRepository.releaseLease(referenceId, nodeId);
+    }
+    
+    /**
+     * Identifies this instance as a lease owner
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * When a lease taken or renewed at the given time runs out
+     */
+    public LocalDateTime leaseExpiry(LocalDateTime now) {
+        return now.plus(leaseDuration);
+    }
+    
+    /**
+     * The export whose user has the fewest exports running, the oldest one between equally busy users.
+     * Candidates must be ordered oldest first.
+     */
+    static ExportHistory pickFairest(List<ExportHistory> candidates, Map<String, Long> runningByUser) {
+        ExportHistory selected = null;
+        long selectedRunning = Long.MAX_VALUE;
+        for (ExportHistory candidate : candidates) {
+            long running = runningByUser.getOrDefault(candidate.getUserId(), 0L);
+            if (running < selectedRunning) {
+                selected = candidate;
+                selectedRunning = running;
+            }
+        }
+        return selected;
+    }
+    
+    // Exports submitted without a user id share the null key
+    private Map<String, Long> runningByUser() {
+        Map<String, Long> running = new HashMap<>();
+        for (Object[] row : exportHistoryRepository.countProcessingExportsByUser()) {
+            running.put((String) row[0], (Long) row[1]);
+        }
+        return running;
+    }
+    
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
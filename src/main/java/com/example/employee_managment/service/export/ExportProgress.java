@@ -0,0 +1,178 @@
+package com.example.employee_managment.service.export;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Live progress of one export job, and its cancellation token.
+ * 
+ * Counters are updated by the threads doing the work (the export worker and
+ * its shard threads) without locking, and read at any time by status
+ * requests and the periodic flush to the database.
+ * 
+ * The threads doing the work call {@link #checkNotCancelled()} between
+ * batches, so a job stops within one batch of {@link #cancel} being called
+ * or of passing its deadline. A job {@link #suspend suspended} for a
+ * shutdown stops the same way, but is meant to be resumed later rather than
+ * failed.
+ */
+public class ExportProgress {
+    
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final AtomicLong expectedRows = new AtomicLong(-1);
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private volatile long maxRuntimeNanos = Long.MAX_VALUE;
+    private volatile long resumedRows;
+    private volatile String cancelReason;
+    private volatile boolean suspended;
+    
+    public ExportProgress() {
+        this(System::nanoTime);
+    }
+    
+    public ExportProgress(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+    }
+    
+    public void addRowsWritten(long rows) {
+        rowsWritten.add(rows);
+    }
+    
+    public void setExpectedRows(long rows) {
+        expectedRows.set(rows);
+    }
+    
+    /**
+     * Starts the counters at the rows and bytes a resumed job had already
+     * written before its checkpoint. Those rows do not count towards the rate.
+     */
+    public void resumeFrom(long rows, long bytes) {
+        resumedRows = rows;
+        rowsWritten.add(rows);
+        bytesWritten.add(bytes);
+    }
+    
+    /**
+     * Cancels the job once it has run for longer than the given time.
+     */
+    public void setMaxRuntime(Duration maxRuntime) {
+        maxRuntimeNanos = maxRuntime.toNanos();
+    }
+    
+    /**
+     * Asks the job to stop. The first reason given is kept.
+     */
+    public void cancel(String reason) {
+        if (cancelReason == null) {
+            cancelReason = reason;
+        }
+    }
+    
+    /**
+     * Asks the job to stop without failing it, unless it is already being
+     * cancelled: the application is shutting down, or another instance took
+     * the job over. The job keeps its checkpoint so it can be resumed.
+     */
+    public void suspend(String reason) {
+        if (cancelReason == null) {
+            suspended = true;
+            cancel(reason);
+        }
+    }
+    
+    public boolean isCancelled() {
+        return cancelReason != null;
+    }
+    
+    public boolean isSuspended() {
+        return suspended;
+    }
+    
+    /**
+     * Throws if the job was cancelled or has passed its deadline.
+     */
+    public void checkNotCancelled() throws ExportCancelledException {
+        if (cancelReason == null && nanoClock.getAsLong() - startNanos > maxRuntimeNanos) {
+            cancel("Export exceeded the maximum runtime");
+        }
+        if (cancelReason != null) {
+            throw new ExportCancelledException(cancelReason);
+        }
+    }
+    
+    /**
+     * Wraps the artifact stream so every byte written to it is counted.
+     */
+    public OutputStream track(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesWritten.increment();
+            }
+            
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                bytesWritten.add(len);
+            }
+        };
+    }
+    
+    public long getRowsWritten() { return rowsWritten.sum(); }
+    
+    public long getBytesWritten() { return bytesWritten.sum(); }
+    
+    /**
+     * Number of rows the export will contain, or -1 while it is not known yet.
+     */
+    public long getExpectedRows() { return expectedRows.get(); }
+    
+    /**
+     * Rows written per second since the job started (or was resumed).
+     */
+    public double getRowsPerSecond() {
+        long elapsedNanos = nanoClock.getAsLong() - startNanos;
+        return elapsedNanos > 0 ? (getRowsWritten() - resumedRows) * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+    
+    /**
+     * Percentage of the expected rows written so far (one decimal), or null if the total is not known.
+     */
+    public Double getPercentComplete() {
+        return percentComplete(getRowsWritten(), getExpectedRows());
+    }
+    
+    /**
+     * Seconds until the remaining rows are written at the measured rate, or null
+     * if the total is not known or nothing has been written yet.
+     */
+    public Long getEstimatedSecondsRemaining() {
+        return estimatedSecondsRemaining(getRowsWritten(), getExpectedRows(), getRowsPerSecond());
+    }
+    
+    public static Double percentComplete(long rowsWritten, long expectedRows) {
+        if (expectedRows < 0) {
+            return null;
+        }
+        if (expectedRows == 0) {
+            return 100.0;
+        }
+        return Math.min(100.0, Math.round(rowsWritten * 1000.0 / expectedRows) / 10.0);
+    }
+    
+    public static Long estimatedSecondsRemaining(long rowsWritten, long expectedRows, double rowsPerSecond) {
+        if (expectedRows < 0 || rowsPerSecond <= 0) {
+            return null;
+        }
+        return (long) Math.ceil(Math.max(0, expectedRows - rowsWritten) / rowsPerSecond);
+    }
+}
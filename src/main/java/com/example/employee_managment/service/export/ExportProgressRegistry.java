@@ -0,0 +1,139 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.repository.ExportHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Progress of the export jobs running on this instance, by reference id.
+ * 
+ * Status requests read the live counters directly. Every few seconds the
+ * counters are also written to export_history, so progress is visible from
+ * other instances and a job whose counters stop moving can be told apart
+ * from one that is just slow. The flush also renews the jobs' leases; a job
+ * whose lease was lost to another instance is suspended. It also cancels
+ * the jobs a user asked to cancel through another instance.
+ */
+@Component
+public class ExportProgressRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExportProgressRegistry.class);
+    
+    private static final String LEASE_LOST = "Export lease lost to another instance";
+    
+    @Autowired
+    private ExportHistoryRepository exportHistoryRepository;
+    
+    @Autowired
+    private ExportJobClaimer claimer;
+    
+    @Value("${app.export.progress.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+    
+    private final Map<String, ExportProgress> running = new ConcurrentHashMap<>();
+    private ScheduledExecutorService renewal;
+    
+    public ExportProgress start(String referenceId) {
+        ExportProgress progress = new ExportProgress();
+        running.put(referenceId, progress);
+        return progress;
+    }
+    
+    public Optional<ExportProgress> get(String referenceId) {
+        return Optional.ofNullable(running.get(referenceId));
+    }
+    
+    public void finish(String referenceId) {
+        running.remove(referenceId);
+    }
+    
+    /**
+     * Ask every running job to stop at its next batch so it can be resumed after a restart
+     */
+    public void suspendAll() {
+        running.values().forEach(progress -> progress.suspend("Export suspended for shutdown"));
+    }
+    
+    public boolean isIdle() {
+        return running.isEmpty();
+    }
+    
+    // Its own thread rather than the shared @Scheduled one, so a slow retention sweep or count refresh
+    // cannot hold up lease renewal long enough for another instance to take running jobs over
+    @PostConstruct
+    void start() {
+        renewal = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "export-lease-renewal"));
+        renewal.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    void stop() {
+        renewal.shutdownNow();
+    }
+    
+    /**
+     * Write the counters of every running job to its export_history row and renew its lease
+     */
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        running.forEach((referenceId, progress) -> {
+            // Not PROCESSING under our lease any more: it expired and another instance claimed the job
+            if (renewLease(referenceId, progress, now) == 0 && running.containsKey(referenceId)) {
+                progress.suspend(LEASE_LOST);
+            }
+        });
+        
+        // Cancel requests for these jobs made through any instance
+        if (!running.isEmpty()) {
+            for (String referenceId : exportHistoryRepository.findCancelRequested(running.keySet())) {
+                get(referenceId).ifPresent(progress -> progress.cancel("Export cancelled by user"));
+            }
+        }
+    }
+    
+    /**
+     * Renew the lease of a running job right away, for steps that must not
+     * run once another instance has taken the job over. Returns false, and
+     * suspends the job, if the lease was lost.
+     */
+    public boolean renew(String referenceId, ExportProgress progress) {
+        if (renewLease(referenceId, progress, LocalDateTime.now()) == 0) {
+            progress.suspend(LEASE_LOST);
+            return false;
+        }
+        return true;
+    }
+    
+    // A task that throws is never run again, so one failed flush must not end lease renewal
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Export progress flush failed", e);
+        }
+    }
+    
+    private int renewLease(String referenceId, ExportProgress progress, LocalDateTime now) {
+        return exportHistoryRepository.updateProgress(referenceId, claimer.getNodeId(),
+                progress.getRowsWritten(), expectedRowsOrNull(progress), progress.getBytesWritten(),
+                now, claimer.leaseExpiry(now));
+    }
+    
+    private static Long expectedRowsOrNull(ExportProgress progress) {
+        long expected = progress.getExpectedRows();
+        return expected >= 0 ? expected : null;
+    }
+}
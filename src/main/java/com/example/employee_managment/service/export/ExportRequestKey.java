@@ -0,0 +1,81 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.dto.ExportRequest;
+import com.example.employee_managment.repository.EmployeeSort;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.StringJoiner;
+
+/**
+ * Canonical key of an export request: two requests have the same key exactly
+ * when they produce the same CSV from the same data.
+ * 
+ * Everything that does not change the output is normalized away: field name
+ * case and spacing, sortBy aliases, name filter case (it is matched
+ * case-insensitively), the page window of filtered exports (they always
+ * contain every match), the shard count, whether the artifact is stored
+ * compressed and the requesting user.
+ */
+public final class ExportRequestKey {
+    
+    private ExportRequestKey() {
+    }
+    
+    /**
+     * SHA-256 (hex) of the canonical form of the request.
+     */
+    public static String of(ExportRequest request) {
+        return sha256(canonicalForm(request));
+    }
+    
+    static String canonicalForm(ExportRequest request) {
+        StringJoiner key = new StringJoiner("\n");
+        key.add("type=" + request.getExportType());
+        key.add("fields=" + canonicalFields(request.getFields()));
+        
+        // A delta continues the chain of one caller and ignores sort and paging
+        boolean delta = request.getMode() == ExportRequest.ExportMode.DELTA;
+        if (delta) {
+            key.add("mode=" + request.getMode());
+            key.add("user=" + request.getUserId());
+        } else {
+            key.add("sort=" + EmployeeSort.of(request.getSortBy(), request.getSortDir()));
+        }
+        key.add("department=" + request.getDepartment());
+        key.add("position=" + request.getPosition());
+        key.add("minSalary=" + request.getMinSalary());
+        key.add("maxSalary=" + request.getMaxSalary());
+        key.add("name=" + (request.getName() != null ? request.getName().toLowerCase() : null));
+        key.add("email=" + request.getEmail());
+        
+        boolean filtered = request.getDepartment() != null || request.getPosition() != null ||
+                request.getMinSalary() != null || request.getMaxSalary() != null ||
+                request.getName() != null || request.getEmail() != null;
+        if (!filtered && !delta) {
+            key.add("page=" + request.getPage() + "," + request.getSize());
+        }
+        return key.toString();
+    }
+    
+    // Known fields by property name, unknown ones (empty columns) by their header
+    private static String canonicalFields(String fieldList) {
+        StringJoiner fields = new StringJoiner(",");
+        for (String name : fieldList.split(",")) {
+            ExportField field = ExportField.fromName(name);
+            fields.add(field != null ? field.getProperty() : "?" + name.trim());
+        }
+        return fields.toString();
+    }
+    
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
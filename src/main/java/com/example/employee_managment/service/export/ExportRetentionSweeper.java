@@ -0,0 +1,167 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.ExportHistory;
+import com.example.employee_managment.repository.ExportHistoryRepository;
+import com.example.employee_managment.repository.ExportPayloadRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Deletes the artifacts of completed exports that are past their retention
+ * age, or that push a user or the whole store over its storage quota, oldest
+ * first. The export_history row is kept for audit with expired_at set; only
+ * the artifact (or a legacy export's export_payload row) goes.
+ * 
+ * Work is done in small batches, each a short read followed by short
+ * deletes and one locking read and update by primary key, so the sweep never
+ * holds locks on many rows for long. Every instance sweeps; deleting an
+ * artifact twice is harmless, and a row is only marked expired (and counted
+ * in the metrics) once.
+ * 
+ * Publishes {@code export.retention.sweep} (duration of each sweep) and
+ * {@code export.retention.rows.reclaimed} / {@code export.retention.bytes.reclaimed}
+ * tagged with the reason the artifacts were expired.
+ */
+@Component
+public class ExportRetentionSweeper {
+    
+    static final String AGE = "age";
+    static final String USER_QUOTA = "user-quota";
+    static final String GLOBAL_QUOTA = "global-quota";
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExportRetentionSweeper.class);
+    
+    @Autowired
+    private ExportHistoryRepository exportHistoryRepository;
+    
+    @Autowired
+    private ExportPayloadRepository exportPayloadRepository;
+    
+    @Autowired
+    private ExportArtifactStore artifactStore;
+    
+    @Autowired
+    private ExportStatusRegistry statusRegistry;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.export.retention.max-age:7d}")
+    private Duration maxAge;
+    
+    @Value("${app.export.retention.user-quota:1GB}")
+    private DataSize userQuota;
+    
+    @Value("${app.export.retention.global-quota:20GB}")
+    private DataSize globalQuota;
+    
+    @Value("${app.export.retention.batch-size:100}")
+    private int batchSize;
+    
+    /**
+     * Expire artifacts by age, then by per-user quota, then by global quota
+     */
+    @Scheduled(fixedDelayString = "${app.export.retention.interval-ms:900000}",
+               initialDelayString = "${app.export.retention.initial-delay-ms:60000}")
+    public void sweep() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+            expireWhile(AGE, Long.MAX_VALUE,
+                    () -> exportHistoryRepository.findLiveArtifactsCompletedBefore(cutoff, batch()));
+            
+            for (Object[] user : exportHistoryRepository.findUsersOverStorageQuota(userQuota.toBytes())) {
+                String userId = (String) user[0];
+                long excess = ((Number) user[1]).longValue() - userQuota.toBytes();
+                expireWhile(USER_QUOTA, excess, () -> exportHistoryRepository.findLiveArtifactsByUser(userId, batch()));
+            }
+            
+            long excess = exportHistoryRepository.sumLiveArtifactBytes() - globalQuota.toBytes();
+            if (excess > 0) {
+                expireWhile(GLOBAL_QUOTA, excess, () -> exportHistoryRepository.findLiveArtifacts(batch()));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Export retention sweep failed", e);
+        } finally {
+            sample.stop(meterRegistry.timer("export.retention.sweep"));
+        }
+    }
+    
+    /**
+     * Expire the exports returned by the batch query, oldest first, until at
+     * least the given number of bytes were reclaimed or nothing is left.
+     * Stops early if a whole batch could not be expired, rather than fetching
+     * the same rows again.
+     */
+    private void expireWhile(String reason, long bytesToReclaim, Supplier<List<ExportHistory>> nextBatch) {
+        long reclaimed = 0;
+        while (reclaimed < bytesToReclaim) {
+            List<ExportHistory> batch = nextBatch.get();
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            List<Long> ids = new ArrayList<>();
+            long batchBytes = 0;
+            for (ExportHistory export : batch) {
+                if (reclaimed + batchBytes >= bytesToReclaim) {
+                    break;
+                }
+                if (deleteArtifact(export)) {
+                    ids.add(export.getId());
+                    batchBytes += export.getFileSize() != null ? export.getFileSize() : 0;
+                }
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            
+            exportPayloadRepository.deleteAllByIdInBatch(ids);
+            List<Long> expired = exportHistoryRepository.markExpired(ids, LocalDateTime.now());
+            long expiredBytes = 0;
+            for (ExportHistory export : batch) {
+                if (expired.contains(export.getId()) && export.getFileSize() != null) {
+                    expiredBytes += export.getFileSize();
+                }
+            }
+            meterRegistry.counter("export.retention.rows.reclaimed", "reason", reason).increment(expired.size());
+            meterRegistry.counter("export.retention.bytes.reclaimed", "reason", reason).increment(expiredBytes);
+            // Artifacts another instance marked meanwhile are gone all the same, so they still count towards the goal
+            reclaimed += batchBytes;
+        }
+    }
+    
+    // A status check served from memory must not point at the deleted artifact
+    private boolean deleteArtifact(ExportHistory export) {
+        try {
+            if (export.getFilePath() != null) {
+                artifactStore.delete(export.getFilePath());
+            }
+            statusRegistry.forget(export.getReferenceId());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not delete artifact of export {}", export.getReferenceId(), e);
+            return false;
+        }
+    }
+    
+    private Pageable batch() {
+        return PageRequest.of(0, batchSize);
+    }
+}
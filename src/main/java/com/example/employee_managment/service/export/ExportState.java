@@ -0,0 +1,82 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.ExportHistory;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of the export_history columns a status check needs.
+ * 
+ * Taken from the row when a status check reads it, or kept by the
+ * {@link ExportStatusRegistry} for exports running on this instance so their
+ * status checks do not read the row at all.
+ */
+public class ExportState {
+    
+    private final Long id;
+    private final String referenceId;
+    private final ExportHistory.ExportStatus status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime startedAt;
+    private final Long processedRecords;
+    private final Long expectedRecords;
+    private final Long totalRecords;
+    private final String filePath;
+    private final Long fileSize;
+    private final String checksum;
+    private final String errorMessage;
+    private final LocalDateTime expiredAt;
+    
+    private ExportState(ExportHistory export) {
+        this.id = export.getId();
+        this.referenceId = export.getReferenceId();
+        this.status = export.getStatus();
+        this.createdAt = export.getCreatedAt();
+        this.startedAt = export.getStartedAt();
+        this.processedRecords = export.getProcessedRecords();
+        this.expectedRecords = export.getExpectedRecords();
+        this.totalRecords = export.getTotalRecords();
+        this.filePath = export.getFilePath();
+        this.fileSize = export.getFileSize();
+        this.checksum = export.getChecksum();
+        this.errorMessage = export.getErrorMessage();
+        this.expiredAt = export.getExpiredAt();
+    }
+    
+    public static ExportState of(ExportHistory export) {
+        return new ExportState(export);
+    }
+    
+    public boolean isFinished() {
+        return status == ExportHistory.ExportStatus.COMPLETED || status == ExportHistory.ExportStatus.FAILED;
+    }
+    
+    public Long getId() { return id; }
+    
+    public String getReferenceId() { return referenceId; }
+    
+    public ExportHistory.ExportStatus getStatus() { return status; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    
+    public Long getProcessedRecords() { return processedRecords; }
+    
+    public Long getExpectedRecords() { return expectedRecords; }
+    
+    public Long getTotalRecords() { return totalRecords; }
+    
+    public String getFilePath() { return filePath; }
+    
+    public Long getFileSize() { return fileSize; }
+    
+    public String getChecksum() { return checksum; }
+    
+    public String getErrorMessage() { return errorMessage; }
+    
+    /**
+     * When the retention sweeper deleted the artifact, or null while it can still be downloaded.
+     */
+    public LocalDateTime getExpiredAt() { return expiredAt; }
+}
@@ -0,0 +1,92 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.ExportHistory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * State of the exports this instance is running or has just finished, by
+ * reference id, so their status checks are answered without reading
+ * export_history.
+ * 
+ * Only the instance running an export has an entry for it and it is the
+ * only writer of the row while it runs, so the entry is always current.
+ * Exports that are still queued, run elsewhere, or finished longer than the
+ * grace period ago are not kept, and their status is read from the database.
+ * A job that stops without finishing (suspended, or its lease lost) drops
+ * its entry, since another worker will take it over.
+ */
+@Component
+public class ExportStatusRegistry {
+    
+    private final Map<String, Entry> states = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+    
+    @Value("${app.export.status.grace-period:10m}")
+    private Duration gracePeriod;
+    
+    public ExportStatusRegistry() {
+        this(System::nanoTime);
+    }
+    
+    ExportStatusRegistry(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+    
+    /**
+     * Record the state of an export after the job running it saved its row
+     */
+    public void update(ExportHistory export) {
+        ExportState state = ExportState.of(export);
+        states.put(state.getReferenceId(), new Entry(state, state.isFinished() ? nanoClock.getAsLong() : 0));
+    }
+    
+    public Optional<ExportState> get(String referenceId) {
+        Entry entry = states.get(referenceId);
+        return entry != null ? Optional.of(entry.state) : Optional.empty();
+    }
+    
+    /**
+     * Drop the entry of an export whose job stopped without finishing it
+     */
+    public void forgetUnfinished(String referenceId) {
+        states.computeIfPresent(referenceId, (id, entry) -> entry.state.isFinished() ? entry : null);
+    }
+    
+    /**
+     * Drop an entry whatever its state, e.g. once the export's artifact was deleted
+     */
+    public void forget(String referenceId) {
+        states.remove(referenceId);
+    }
+    
+    public int size() {
+        return states.size();
+    }
+    
+    /**
+     * Evict exports that finished more than the grace period ago
+     */
+    @Scheduled(fixedDelayString = "${app.export.status.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        long cutoff = nanoClock.getAsLong() - gracePeriod.toNanos();
+        states.values().removeIf(entry -> entry.state.isFinished() && entry.finishedAtNanos - cutoff < 0);
+    }
+    
+    private static class Entry {
+        final ExportState state;
+        final long finishedAtNanos; // Only meaningful once the export finished
+        
+        Entry(ExportState state, long finishedAtNanos) {
+            this.state = state;
+            this.finishedAtNanos = finishedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.employee_managment.service.export;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Export artifact store backed by a local directory.
+ * 
+ * Artifacts are written to a ".part" file and atomically renamed on commit,
+ * so a reader never sees a half-written export. The SHA-256 checksum is
+ * computed while the bytes are written, without a second pass over the file.
+ * A resumed artifact only re-reads the part written before the checkpoint.
+ * 
+ * Every instance reads and writes the same directory: when several
+ * instances run (app.export.multi-instance) it must be shared storage
+ * mounted on all of them, and startup fails without one.
+ */
+@Component
+public class FileSystemExportArtifactStore implements ExportArtifactStore {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PART_SUFFIX = ".part";
+    
+    private final Path baseDirectory;
+    
+    public FileSystemExportArtifactStore(String baseDirectory) {
+        this.baseDirectory = Paths.get(baseDirectory).toAbsolutePath().normalize();
+    }
+    
+    @Autowired
+    public FileSystemExportArtifactStore(@Value("${app.export.storage.directory:}") String baseDirectory,
+                                         @Value("${app.export.multi-instance:false}") boolean multiInstance) {
+        this(checkBaseDirectory(baseDirectory, multiInstance));
+    }
+    
+    @Override
+    public ArtifactWriter create(String referenceId, boolean compressed) throws IOException {
+        Files.createDirectories(baseDirectory);
+        Path target = resolve(fileName(referenceId, compressed));
+        Path partial = resolve(fileName(referenceId, compressed) + PART_SUFFIX);
+        return new FileArtifactWriter(target, partial, 0);
+    }
+    
+    @Override
+    public Optional<ArtifactWriter> resume(String referenceId, long offset, boolean compressed) throws IOException {
+        Path target = resolve(fileName(referenceId, compressed));
+        Path partial = resolve(fileName(referenceId, compressed) + PART_SUFFIX);
+        if (!Files.isRegularFile(partial) || Files.size(partial) < offset) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileArtifactWriter(target, partial, offset));
+    }
+    
+    @Override
+    public Resource load(String location) throws IOException {
+        Path path = resolve(location);
+        if (!Files.isRegularFile(path)) {
+            throw new FileNotFoundException("Export artifact not found: " + location);
+        }
+        return new FileSystemResource(path);
+    }
+    
+    @Override
+    public boolean exists(String location) {
+        return location != null && Files.isRegularFile(resolve(location));
+    }
+    
+    @Override
+    public void delete(String location) throws IOException {
+        Files.deleteIfExists(resolve(location));
+    }
+    
+    /**
+     * Workers on any instance may claim, resume, serve and expire any export,
+     * so with several instances the directory must be one they all share.
+     * A node-local default would quietly break all of that, so it is only
+     * used for a single instance; several instances need the directory set to
+     * an existing (mounted) path, which is never created here.
+     */
+    private static String checkBaseDirectory(String baseDirectory, boolean multiInstance) {
+        if (!multiInstance) {
+            return baseDirectory.isBlank()
+                    ? Paths.get(System.getProperty("java.io.tmpdir"), "employee-exports").toString()
+                    : baseDirectory;
+        }
+        if (baseDirectory.isBlank()) {
+            throw new IllegalStateException(
+                    "app.export.storage.directory must be set to a directory shared by every instance when app.export.multi-instance=true");
+        }
+        if (!Files.isDirectory(Paths.get(baseDirectory))) {
+            throw new IllegalStateException("Shared export storage directory does not exist: " + baseDirectory);
+        }
+        return baseDirectory;
+    }
+    
+    private static String fileName(String referenceId, boolean compressed) {
+        return referenceId + (compressed ? ".csv.gz" : ".csv");
+    }
+    
+    /**
+     * Resolves a location inside the base directory, rejecting anything that would escape it.
+     */
+    private Path resolve(String location) {
+        Path path = baseDirectory.resolve(location).normalize();
+        if (!path.startsWith(baseDirectory)) {
+            throw new IllegalArgumentException("Invalid artifact location: " + location);
+        }
+        return path;
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private class FileArtifactWriter implements ArtifactWriter {
+        
+        private final Path target;
+        private final Path partial;
+        private final MessageDigest digest = newDigest();
+        private final OutputStream outputStream;
+        private boolean committed;
+        private boolean keepPartial;
+        
+        FileArtifactWriter(Path target, Path partial, long offset) throws IOException {
+            this.target = target;
+            this.partial = partial;
+            
+            // Drop anything written after the checkpoint and feed the kept prefix to the checksum
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                channel.truncate(offset);
+            }
+            if (offset > 0) {
+                try (InputStream in = Files.newInputStream(partial)) {
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+            
+            this.outputStream = new BufferedOutputStream(new DigestOutputStream(
+                    Files.newOutputStream(partial, StandardOpenOption.APPEND), digest), BUFFER_SIZE);
+        }
+        
+        @Override
+        public OutputStream getOutputStream() {
+            return outputStream;
+        }
+        
+        @Override
+        public StoredArtifact commit() throws IOException {
+            outputStream.close();
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            
+            String location = baseDirectory.relativize(target).toString();
+            return new StoredArtifact(location, Files.size(target), HexFormat.of().formatHex(digest.digest()));
+        }
+        
+        @Override
+        public void keepPartial() {
+            keepPartial = true;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                try {
+                    outputStream.close();
+                } finally {
+                    if (!keepPartial) {
+                        Files.deleteIfExists(partial);
+                    }
+                }
+            }
+        }
+    }
+}
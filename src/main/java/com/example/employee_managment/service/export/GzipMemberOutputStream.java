@@ -0,0 +1,96 @@
+package com.example.employee_managment.service.export;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip compression stage for export artifacts that writes its output as a
+ * series of gzip members.
+ * 
+ * A gzip file may consist of several members one after the other, and
+ * decompresses to their concatenated contents. Ending the current member at
+ * a checkpoint leaves the artifact complete and valid up to that byte, so an
+ * interrupted export can be resumed by truncating to the checkpoint and
+ * appending a new member, exactly like an uncompressed one.
+ */
+public class GzipMemberOutputStream extends OutputStream {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final OutputStream out;
+    private GZIPOutputStream member;
+    private boolean started;
+    
+    public GzipMemberOutputStream(OutputStream out) {
+        this.out = out;
+    }
+    
+    @Override
+    public void write(int b) throws IOException {
+        member().write(b);
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        member().write(b, off, len);
+    }
+    
+    /**
+     * Ends the current member and flushes it, so every byte written so far can
+     * be decompressed from what has reached the underlying stream.
+     */
+    public void endMember() throws IOException {
+        if (member != null) {
+            // Writes the trailer and releases the deflater; the artifact stream stays open
+            member.close();
+            member = null;
+        }
+        out.flush();
+    }
+    
+    /**
+     * Ends the last member without closing the underlying stream. An artifact
+     * nothing was written to still gets one (empty) member, so it is valid gzip.
+     */
+    public void finish() throws IOException {
+        if (!started) {
+            member();
+        }
+        endMember();
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        if (member != null) {
+            member.flush();
+        }
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+    
+    private GZIPOutputStream member() throws IOException {
+        if (member == null) {
+            // Closing a member must not close the artifact stream
+            member = new GZIPOutputStream(new FilterOutputStream(out) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+                
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            }, BUFFER_SIZE);
+            started = true;
+        }
+        return member;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.repository.EmployeeRepository;
+import com.example.employee_managment.repository.EmployeeSpecifications;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes id-ordered CSV exports in parallel.
+ * 
+ * The id range (min..max) of the matching employees is split into
+ * contiguous chunks of about {@code app.export.shards.chunk-size} ids (at
+ * least one and at most {@code app.export.shards.max-chunks-per-shard} chunks
+ * per shard; a sparse id range gets wider chunks instead of more of them). Up to one chunk per shard is read with
+ * keyset pagination and encoded into its own temporary file on a shard
+ * thread, and the chunk files are appended to the output in id order, each
+ * one as soon as it and all chunks before it are done. The result is byte
+ * for byte the same as a single-threaded export sorted by id.
+ * 
+ * After each appended chunk the caller gets a checkpoint: every row up to
+ * the chunk's last id is in the output. An interrupted export can be
+ * continued by writing again after that id.
+ * 
+ * All jobs share one pool of {@code app.export.shards.max} threads, so at
+ * most that many shard queries hold a database connection at any time, no
+ * matter how many exports are running.
+ */
+@Component
+public class ShardedCsvExporter {
+    
+    /**
+     * Told after each chunk is appended to the output.
+     */
+    @FunctionalInterface
+    public interface CheckpointListener {
+        
+        /**
+         * @param lastId      highest id the appended chunks cover
+         * @param rowsWritten rows appended by this call of write so far
+         */
+        void chunkWritten(long lastId, long rowsWritten) throws IOException;
+    }
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Value("${app.export.shards.default:4}")
+    private int defaultShards;
+    
+    @Value("${app.export.shards.max:4}")
+    private int maxShards;
+    
+    @Value("${app.export.shards.chunk-size:50000}")
+    private long chunkSize;
+    
+    @Value("${app.export.shards.max-chunks-per-shard:64}")
+    private int maxChunksPerShard;
+    
+    private ExecutorService executor;
+    
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        executor = Executors.newFixedThreadPool(maxShards,
+                runnable -> new Thread(runnable, "export-shard-" + threadNumber.getAndIncrement()));
+    }
+    
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Writes the header and every employee matching the filters, sorted by id
+     * ascending, to the output. Returns the number of rows written.
+     * 
+     * @param requestedShards number of shards to split the export into, or null
+     *                        for the configured default; capped at app.export.shards.max
+     * @param progress        counts the rows written by every shard; cancelling
+     *                        it stops every shard within one batch
+     */
+    public long write(Specification<Employee> filters, CsvRowEncoder encoder, Integer requestedShards,
+                      OutputStream out, ExportProgress progress) throws IOException {
+        return write(filters, encoder, requestedShards, out, progress, null, (lastId, rowsWritten) -> { });
+    }
+    
+    /**
+     * Same as {@link #write(Specification, CsvRowEncoder, Integer, OutputStream, ExportProgress)},
+     * but only writes employees after {@code resumeAfterId} when it is set, without a header,
+     * to continue an export from a checkpoint.
+     */
+    public long write(Specification<Employee> filters, CsvRowEncoder encoder, Integer requestedShards,
+                      OutputStream out, ExportProgress progress, Long resumeAfterId,
+                      CheckpointListener checkpoints) throws IOException {
+        Specification<Employee> remaining = filters;
+        if (resumeAfterId == null) {
+            CsvOutput header = new CsvOutput(out, 1024);
+            encoder.writeHeader(header);
+            header.flush();
+        } else {
+            remaining = filters.and(EmployeeSpecifications.idGreaterThan(resumeAfterId));
+        }
+        
+        Optional<Range<Long>> idRange = employeeRepository.findIdRange(remaining);
+        if (idRange.isEmpty()) {
+            return 0;
+        }
+        
+        int shards = shardCount(requestedShards);
+        List<Range<Long>> chunks = split(idRange.get(), chunkCount(idRange.get(), shards));
+        List<String> properties = withId(encoder.getProperties());
+        List<Path> parts = new ArrayList<>();
+        List<Future<Long>> results = new ArrayList<>();
+        
+        try {
+            long rowCount = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                // Keep every shard busy, but never more than one chunk per shard ahead of the output
+                while (results.size() < chunks.size() && results.size() < i + shards) {
+                    Range<Long> chunk = chunks.get(results.size());
+                    Path part = Files.createTempFile("export-shard-", ".csv.part");
+                    parts.add(part);
+                    results.add(executor.submit(() -> writeShard(filters, chunk, encoder, properties, part, progress)));
+                }
+                
+                // Append chunks in id order, each as soon as it is done
+                rowCount += await(results.get(i));
+                progress.checkNotCancelled();
+                Files.copy(parts.get(i), out);
+                Files.delete(parts.get(i));
+                checkpoints.chunkWritten(chunks.get(i).getUpperBound().getValue().orElseThrow(), rowCount);
+            }
+            return rowCount;
+        } finally {
+            for (Future<Long> result : results) {
+                result.cancel(true);
+            }
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+    
+    /**
+     * Number of shards for a job: the requested count (or the default), between 1 and the configured maximum
+     */
+    int shardCount(Integer requestedShards) {
+        int shards = requestedShards != null ? requestedShards : defaultShards;
+        return Math.max(1, Math.min(shards, maxShards));
+    }
+    
+    /**
+     * Number of chunks for an id range: enough to keep chunks near the configured size, at least one and at
+     * most app.export.shards.max-chunks-per-shard per shard, since every chunk costs a query and a temporary file
+     */
+    int chunkCount(Range<Long> idRange, int shards) {
+        long width = idRange.getUpperBound().getValue().orElseThrow() - idRange.getLowerBound().getValue().orElseThrow() + 1;
+        long chunks = width / chunkSize + (width % chunkSize == 0 ? 0 : 1);
+        long maxChunks = (long) shards * Math.max(1, maxChunksPerShard);
+        return (int) Math.max(shards, Math.min(chunks, maxChunks));
+    }
+    
+    /**
+     * Splits an id range into at most {@code count} contiguous, non-empty ranges of nearly equal width
+     */
+    static List<Range<Long>> split(Range<Long> idRange, int count) {
+        long min = idRange.getLowerBound().getValue().orElseThrow();
+        long max = idRange.getUpperBound().getValue().orElseThrow();
+        long width = max - min + 1;
+        int shards = (int) Math.min(count, width);
+        
+        List<Range<Long>> ranges = new ArrayList<>(shards);
+        long start = min;
+        for (int i = 0; i < shards; i++) {
+            long end = i == shards - 1 ? max : start + width / shards + (i < width % shards ? 1 : 0) - 1;
+            ranges.add(Range.closed(start, end));
+            start = end + 1;
+        }
+        return ranges;
+    }
+    
+    private long writeShard(Specification<Employee> filters, Range<Long> shard, CsvRowEncoder encoder,
+                            List<String> properties, Path part, ExportProgress progress) throws IOException {
+        long from = shard.getLowerBound().getValue().orElseThrow();
+        long to = shard.getUpperBound().getValue().orElseThrow();
+        EmployeeKeysetIterator batches = new EmployeeKeysetIterator(employeeRepository,
+                filters.and(EmployeeSpecifications.idAtMost(to)), properties, from - 1);
+        
+        long rowCount = 0;
+        try (CsvOutput out = new CsvOutput(Files.newOutputStream(part))) {
+            while (batches.hasNext()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Export shard cancelled");
+                }
+                progress.checkNotCancelled();
+                List<Object[]> batch = batches.next();
+                for (Object[] row : batch) {
+                    encoder.writeRow(out, row);
+                    progress.addRowsWritten(1);
+                    rowCount++;
+                }
+            }
+        }
+        return rowCount;
+    }
+    
+    // Keyset pagination needs the id; an extra trailing tuple column is ignored by the encoder
+    private static List<String> withId(List<String> properties) {
+        if (properties.contains("id")) {
+            return properties;
+        }
+        List<String> withId = new ArrayList<>(properties);
+        withId.add("id");
+        return withId;
+    }
+    
+    private static long await(Future<Long> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for export shard");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Export shard failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
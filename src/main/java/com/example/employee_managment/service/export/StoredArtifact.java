@@ -0,0 +1,26 @@
+package com.example.employee_managment.service.export;
+
+/**
+ * Location, size and checksum of a committed export artifact.
+ */
+public class StoredArtifact {
+    
+    private final String location;
+    private final long size;
+    private final String checksum;
+    
+    public StoredArtifact(String location, long size, String checksum) {
+        this.location = location;
+        this.size = size;
+        this.checksum = checksum;
+    }
+    
+    public String getLocation() { return location; }
+    
+    public long getSize() { return size; }
+    
+    /**
+     * Hex encoded SHA-256 of the stored bytes.
+     */
+    public String getChecksum() { return checksum; }
+}
@@ -0,0 +1,138 @@
+package com.example.employee_managment.benchmark;
+
+import com.example.employee_managment.EmployeeManagmentApplication;
+import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a read-heavy mix of employee lookups on the H2 test profile,
+ * with the Hibernate second-level and query cache off and on.
+ * 
+ * Each operation is a findById, a findByDepartment, a findByPosition or a
+ * findByDepartmentAndPosition, except writePercent of them which update an
+ * employee's salary. Every write drops all cached finder results, so the
+ * query cache gains less as writes get more frequent; entity lookups by id
+ * are only affected for the employee written. The repository is called
+ * directly, bypassing the EmployeeCache in front of EmployeeService.
+ * 
+ * Run from the project root:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       com.example.employee_managment.benchmark.SecondLevelCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+    
+    private static final int EMPLOYEES = 10000;
+    private static final int DEPARTMENTS = 50;
+    private static final int POSITIONS = 20;
+    
+    @Param({"false", "true"})
+    public boolean secondLevelCache;
+    
+    @Param({"1", "10"})
+    public int writePercent;
+    
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+    private List<Long> ids;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeManagmentApplication.class)
+                .profiles("test")
+                .properties(
+                        "app.employee.second-level-cache.enabled=" + secondLevelCache,
+                        "spring.liquibase.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN")
+                .run();
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = new Employee("First" + i, "Last" + i, "user" + i + "@example.com");
+            employee.setDepartment(department(i % DEPARTMENTS));
+            employee.setPosition(position(i % POSITIONS));
+            employee.setSalary(50000 + i * 12.5);
+            employees.add(employee);
+        }
+        ids = employeeRepository.saveAll(employees).stream().map(Employee::getId).toList();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Object readHeavyMix() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < writePercent) {
+            Employee employee = employeeRepository.findById(randomId(random)).orElseThrow();
+            employee.setSalary(employee.getSalary() + 1);
+            return employeeRepository.save(employee);
+        }
+        
+        switch (random.nextInt(4)) {
+            case 0:
+                return employeeRepository.findById(randomId(random));
+            case 1:
+                return employeeRepository.findByDepartment(department(random.nextInt(DEPARTMENTS)));
+            case 2:
+                return employeeRepository.findByPosition(position(random.nextInt(POSITIONS)));
+            default:
+                return employeeRepository.findByDepartmentAndPosition(
+                        department(random.nextInt(DEPARTMENTS)), position(random.nextInt(POSITIONS)));
+        }
+    }
+    
+    private Long randomId(ThreadLocalRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+    
+    private static String department(int i) {
+        return "Department" + i;
+    }
+    
+    private static String position(int i) {
+        return "Position" + i;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SecondLevelCacheBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
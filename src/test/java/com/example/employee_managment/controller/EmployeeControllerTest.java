@@ -1,6 +1,7 @@
 package com.example.employee_managment.controller;
 
 import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.repository.EmployeeCursor;
 import com.example.employee_managment.service.EmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,14 +9,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
@@ -132,6 +139,75 @@ class EmployeeControllerTest {
         verify(employeeService).getAllEmployees();
     }
 
+    @Test
+    void testGetAllEmployeesWithoutTotals() throws Exception {
+        when(employeeService.findEmployees(any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(employee1, employee2), Pageable.ofSize(2), true));
+
+        mockMvc.perform(get("/api/employees")
+                .param("size", "2")
+                .param("totalMode", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalItems").doesNotExist());
+
+        verify(employeeService, never()).getAllEmployeesPaginated(any());
+        verify(employeeService, never()).getEstimatedEmployeeCount();
+    }
+
+    @Test
+    void testGetAllEmployeesWithEstimatedTotals() throws Exception {
+        when(employeeService.findEmployees(any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(employee1, employee2), Pageable.ofSize(2), true));
+        when(employeeService.getEstimatedEmployeeCount()).thenReturn(7L);
+
+        mockMvc.perform(get("/api/employees")
+                .param("size", "2")
+                .param("totalMode", "estimated"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").value(7))
+                .andExpect(jsonPath("$.totalPages").value(4))
+                .andExpect(jsonPath("$.totalMode").value("estimated"));
+
+        verify(employeeService, never()).getAllEmployeesPaginated(any());
+    }
+
+    @Test
+    void testGetAllEmployeesWithUnknownTotalMode() throws Exception {
+        mockMvc.perform(get("/api/employees").param("totalMode", "sometimes"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetEmployeesByCursor() throws Exception {
+        when(employeeService.getEmployeesAfter(any(EmployeeCursor.class), eq(2)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(employee1, employee2), Pageable.ofSize(2), true));
+
+        MvcResult result = mockMvc.perform(get("/api/employees")
+                .param("cursor", "")
+                .param("size", "2")
+                .param("sortBy", "salary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalItems").doesNotExist())
+                .andReturn();
+
+        // The next token resumes after the last row of the page
+        String next = objectMapper.readTree(result.getResponse().getContentAsString()).get("next").asText();
+        assertEquals(EmployeeCursor.first("salary", "asc").after(employee2).encode(), next);
+        verify(employeeService, never()).getAllEmployeesPaginated(any());
+    }
+
+    @Test
+    void testGetEmployeesByInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/employees").param("cursor", "???"))
+                .andExpect(status().isBadRequest());
+
+        verify(employeeService, never()).getEmployeesAfter(any(), anyInt());
+    }
+
     @Test
     void testGetEmployeeByIdFound() throws Exception {
         // Arrange
@@ -315,6 +391,56 @@ class EmployeeControllerTest {
         verify(employeeService).getEmployeesWithSalaryGreaterThan(75000.0);
     }
 
+    @Test
+    void testGetEmployeesWithSalaryGreaterThanIsPagedOnRequest() throws Exception {
+        when(employeeService.getEmployeesWithSalaryGreaterThan(eq(75000.0), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(employee2, employee3)));
+
+        mockMvc.perform(get("/api/employees/salary")
+                .param("min", "75000")
+                .param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().doesNotExist("Link"));
+
+        verify(employeeService).getEmployeesWithSalaryGreaterThan(75000.0, PageRequest.of(0, 100, Sort.by("id")));
+        verify(employeeService, never()).getEmployeesWithSalaryGreaterThan(75000.0);
+    }
+
+    @Test
+    void testGetEmployeesByDepartmentLinksToNextPage() throws Exception {
+        when(employeeService.getEmployeesByDepartment(eq("Engineering"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(employee1), Pageable.ofSize(1), true));
+
+        mockMvc.perform(get("/api/employees/department/Engineering")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("Link", "<http://localhost/api/employees/department/Engineering?page=2&size=1>; rel=\"next\""));
+    }
+
+    @Test
+    void testStreamEmployeesByDepartment() throws Exception {
+        when(employeeService.findEmployeesAfter(any(), any(EmployeeCursor.class), anyInt()))
+                .thenReturn(new SliceImpl<>(Arrays.asList(employee1, employee3), Pageable.ofSize(2), true))
+                .thenReturn(new SliceImpl<>(Arrays.asList(employee2)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/employees/department/Engineering")
+                .param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertEquals(3, lines.length);
+        assertEquals("Bob", objectMapper.readTree(lines[1]).get("firstName").asText());
+        verify(employeeService, times(2)).findEmployeesAfter(any(), any(EmployeeCursor.class), anyInt());
+        verify(employeeService, never()).getEmployeesByDepartment(anyString());
+    }
+
     @Test
     void testCreateEmployeeWithInvalidEmail() throws Exception {
         // Arrange
@@ -345,4 +471,64 @@ class EmployeeControllerTest {
 
         verify(employeeService, never()).createEmployee(any(Employee.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testExportEmployeesToCsvStreaming() throws Exception {
+        // Arrange
+        when(employeeService.findEmployeeColumns(any(), eq(List.of("id", "firstName", "lastName")), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(
+                        new Object[] {1L, "John", "Doe"},
+                        new Object[] {2L, "Jane", "Smith"},
+                        new Object[] {3L, "Bob", "Johnson"})));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/api/employees/export/csv")
+                .param("stream", "true")
+                .param("size", "50000")
+                .param("fields", "id,firstName,lastName"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "ID,First Name,Last Name\n" +
+                        "\"1\",\"John\",\"Doe\"\n" +
+                        "\"2\",\"Jane\",\"Smith\"\n" +
+                        "\"3\",\"Bob\",\"Johnson\"\n"));
+
+        verify(employeeService).findEmployeeColumns(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void testExportEmployeesToCsvStreamingPageSeeksPastPreviousRow() throws Exception {
+        // Arrange - the last row of page 1 is read by offset, page 2 by seeking past it
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+        when(employeeService.findEmployeeColumns(any(), eq(List.of("id", "firstName")), eq(PageRequest.of(1, 1, sort))))
+                .thenReturn(new SliceImpl<>(List.<Object[]>of(new Object[] {2L, "Jane"})));
+        when(employeeService.findEmployeeColumns(any(), eq(List.of("id", "firstName")), eq(PageRequest.of(0, 2, sort))))
+                .thenReturn(new SliceImpl<>(Arrays.asList(
+                        new Object[] {3L, "Bob"},
+                        new Object[] {4L, "Alice"})));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/api/employees/export/csv")
+                .param("stream", "true")
+                .param("page", "2")
+                .param("size", "2")
+                .param("fields", "id,firstName"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "ID,First Name\n" +
+                        "\"3\",\"Bob\"\n" +
+                        "\"4\",\"Alice\"\n"));
+
+        verify(employeeService, times(2)).findEmployeeColumns(any(), any(), any(Pageable.class));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.employee_managment.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportControllerTest {
+
+    @Test
+    void testAcceptsGzipExplicitlyOrThroughWildcard() {
+        assertTrue(ExportController.acceptsGzip("gzip"));
+        assertTrue(ExportController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(ExportController.acceptsGzip("br, *"));
+    }
+
+    @Test
+    void testRefusesGzipWithZeroQualityOrWhenNotListed() {
+        assertFalse(ExportController.acceptsGzip(null));
+        assertFalse(ExportController.acceptsGzip("br, deflate"));
+        assertFalse(ExportController.acceptsGzip("gzip;q=0"));
+        assertFalse(ExportController.acceptsGzip("*;q=0"));
+        assertFalse(ExportController.acceptsGzip("gzip;q=abc"));
+    }
+
+    @Test
+    void testExplicitGzipQualityOverridesWildcard() {
+        assertFalse(ExportController.acceptsGzip("gzip;q=0, *"));
+        assertFalse(ExportController.acceptsGzip("*, gzip;q=0"));
+        assertTrue(ExportController.acceptsGzip("*;q=0, gzip"));
+    }
+}
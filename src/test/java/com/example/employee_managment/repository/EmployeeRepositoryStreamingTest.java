@@ -0,0 +1,104 @@
+package com.example.employee_managment.repository;
+
+import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.service.encryption.EncryptionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The cursor runs on its own connection, so rows must be committed rather than rolled back per test
+@DataJpaTest(properties = "spring.liquibase.enabled=false")
+@ActiveProfiles("test")
+@Import(EncryptionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeRepositoryStreamingTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 1; i <= 25; i++) {
+            Employee employee = new Employee("First" + i, "Last" + i, "user" + i + "@example.com");
+            employee.setDepartment(i % 2 == 0 ? "Engineering" : "Product");
+            employee.setSalary(50000.0 + i * 1000);
+            employees.add(employee);
+        }
+        employeeRepository.saveAll(employees);
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testStreamColumnsAppliesFiltersAndSort() {
+        try (Stream<Object[]> stream = employeeRepository.streamColumns(
+                EmployeeSpecifications.withFilters("Engineering", null, 60000.0, null, null, null),
+                List.of("salary"), Pageable.unpaged(EmployeeSort.of("salary", "desc")), 5)) {
+
+            List<Object> salaries = stream.map(row -> row[0]).toList();
+
+            assertEquals(List.of(74000.0, 72000.0, 70000.0, 68000.0, 66000.0, 64000.0, 62000.0), salaries);
+        }
+    }
+
+    @Test
+    void testStreamColumnsAppliesPageWindow() {
+        try (Stream<Object[]> stream = employeeRepository.streamColumns(
+                EmployeeSpecifications.withFilters(null, null, null, null, null, null),
+                List.of("firstName"), PageRequest.of(2, 10, EmployeeSort.of("id", "asc")), 3)) {
+
+            List<Object> firstNames = stream.map(row -> row[0]).toList();
+
+            assertEquals(List.of("First21", "First22", "First23", "First24", "First25"), firstNames);
+        }
+    }
+
+    @Test
+    void testStreamColumnsReturnsOnlySelectedPropertiesInOrder() {
+        try (Stream<Object[]> stream = employeeRepository.streamColumns(
+                EmployeeSpecifications.withFilters(null, null, null, null, null, "user7@example.com"),
+                List.of("email", "department", "salary"), Pageable.unpaged(EmployeeSort.of("id", "asc")), 10)) {
+
+            List<Object[]> rows = stream.toList();
+
+            assertEquals(1, rows.size());
+            assertArrayEquals(new Object[] {"user7@example.com", "Product", 57000.0}, rows.get(0));
+        }
+    }
+
+    @Test
+    void testFindColumnSliceDetectsNextSlice() {
+        Slice<Object[]> first = employeeRepository.findColumnSlice(
+                EmployeeSpecifications.withFilters(null, null, null, null, null, null),
+                List.of("lastName", "id"), PageRequest.of(0, 20, EmployeeSort.of("id", "asc")));
+        Slice<Object[]> second = employeeRepository.findColumnSlice(
+                EmployeeSpecifications.withFilters(null, null, null, null, null, null),
+                List.of("lastName", "id"), PageRequest.of(1, 20, EmployeeSort.of("id", "asc")));
+
+        assertEquals(20, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals("Last1", first.getContent().get(0)[0]);
+        assertEquals(5, second.getNumberOfElements());
+        assertFalse(second.hasNext());
+        assertEquals("Last25", second.getContent().get(4)[0]);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.employee_managment.repository;
+
+import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.service.encryption.EncryptionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Every repository call commits on its own, as in production, so the cache sees each write
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "app.employee.second-level-cache.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ActiveProfiles("test")
+@Import(EncryptionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeSecondLevelCacheTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        save("John", "john.doe@example.com", "Engineering", "Software Engineer");
+        save("Jane", "jane.smith@example.com", "Product", "Product Manager");
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void testEmployeeIsReadFromTheCache() {
+        Long id = employeeRepository.findByEmail("john.doe@example.com").orElseThrow().getId();
+
+        employeeRepository.findById(id);
+        employeeRepository.findById(id);
+
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    void testFinderResultsAreCachedAndDroppedOnWrite() {
+        assertEquals(1, employeeRepository.findByDepartment("Engineering").size());
+        assertEquals(1, statistics.getQueryCachePutCount());
+
+        save("Bob", "bob.johnson@example.com", "Engineering", "Software Engineer");
+
+        List<String> engineers = employeeRepository.findByDepartment("Engineering").stream()
+                .map(Employee::getFirstName).sorted().toList();
+        assertEquals(List.of("Bob", "John"), engineers);
+        assertEquals(2, employeeRepository.findByDepartmentAndPosition("Engineering", "Software Engineer").size());
+    }
+
+    @Test
+    void testLookupByEmailIsServedFromTheQueryCache() {
+        Long id = employeeRepository.findByEmail("jane.smith@example.com").orElseThrow().getId();
+
+        assertEquals(id, employeeRepository.findByEmail("jane.smith@example.com").orElseThrow().getId());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    private void save(String firstName, String email, String department, String position) {
+        Employee employee = new Employee(firstName, "Doe", email);
+        employee.setDepartment(department);
+        employee.setPosition(position);
+        employeeRepository.save(employee);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.employee_managment.repository;
+
+import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.service.encryption.EncryptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The Liquibase changelog targets MySQL, so these tests let Hibernate create the H2 schema
+@DataJpaTest(properties = "spring.liquibase.enabled=false")
+@ActiveProfiles("test")
+@Import(EncryptionService.class)
+class EmployeeSpecificationsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setUp() {
+        persist("John", "Doe", "john.doe@example.com", "Engineering", "Software Engineer", 75000.0);
+        persist("Jane", "Smith", "jane.smith@example.com", "Product", "Product Manager", 85000.0);
+        persist("Bob", "Johnson", "bob.johnson@example.com", "Engineering", "Software Engineer", 80000.0);
+        persist("Alice", "Brown", "alice.brown@example.com", "Engineering", "Engineering Manager", 95000.0);
+        persist("Carol", "Jones_Ltd", "carol.jones@example.com", "Engineering", "Software Engineer", null);
+    }
+
+    @Test
+    void testNoFiltersMatchesEveryone() {
+        List<Employee> result = findAll(EmployeeSpecifications.withFilters(null, null, null, null, null, null));
+
+        assertEquals(5, result.size());
+    }
+
+    @Test
+    void testCombinesDepartmentPositionAndSalaryRange() {
+        // minSalary is exclusive, maxSalary inclusive
+        List<Employee> result = findAll(EmployeeSpecifications.withFilters(
+                "Engineering", "Software Engineer", 75000.0, 80000.0, null, null));
+
+        assertEquals(List.of("Bob"), firstNames(result));
+    }
+
+    @Test
+    void testMaxSalaryWithoutMinSalary() {
+        List<Employee> result = findAll(EmployeeSpecifications.withFilters(null, null, null, 80000.0, null, null));
+
+        assertEquals(List.of("John", "Bob"), firstNames(result));
+    }
+
+    @Test
+    void testNameSearchIsCaseInsensitiveOnFirstOrLastName() {
+        List<Employee> result = findAll(EmployeeSpecifications.withFilters("Engineering", null, null, null, "JO", null));
+
+        assertEquals(List.of("John", "Bob", "Carol"), firstNames(result));
+    }
+
+    @Test
+    void testNameSearchEscapesLikeWildcards() {
+        // An unescaped "_" would match any character, e.g. "nes" in "Jones_Ltd"
+        assertTrue(findAll(EmployeeSpecifications.withFilters(null, null, null, null, "n_s", null)).isEmpty());
+        assertEquals(List.of("Carol"), firstNames(findAll(EmployeeSpecifications.withFilters(null, null, null, null, "s_l", null))));
+    }
+
+    @Test
+    void testEmailFilterCombinesWithOtherFilters() {
+        assertEquals(1, findAll(EmployeeSpecifications.withFilters("Product", null, null, null, null, "jane.smith@example.com")).size());
+        assertTrue(findAll(EmployeeSpecifications.withFilters("Engineering", null, null, null, null, "jane.smith@example.com")).isEmpty());
+    }
+
+    @Test
+    void testFindSliceSortsAndPagesInTheDatabase() {
+        Pageable firstPage = PageRequest.of(0, 2, EmployeeSort.of("salary", "desc"));
+
+        Slice<Employee> first = employeeRepository.findSlice(
+                EmployeeSpecifications.withFilters("Engineering", null, null, null, null, null), firstPage);
+        Slice<Employee> second = employeeRepository.findSlice(
+                EmployeeSpecifications.withFilters("Engineering", null, null, null, null, null), firstPage.next());
+        Slice<Employee> third = employeeRepository.findSlice(
+                EmployeeSpecifications.withFilters("Engineering", null, null, null, null, null), firstPage.next().next());
+
+        assertEquals(List.of("Alice", "Bob"), firstNames(first.getContent()));
+        assertTrue(first.hasNext());
+        assertEquals(2, second.getNumberOfElements());
+        assertFalse(second.hasNext());
+        assertTrue(third.isEmpty());
+        assertFalse(third.hasNext());
+    }
+
+    @Test
+    void testFindByDepartmentPaged() {
+        Slice<Employee> first = employeeRepository.findByDepartment("Engineering", PageRequest.of(0, 2, Sort.by("id")));
+        Slice<Employee> second = employeeRepository.findByDepartment("Engineering", first.nextPageable());
+
+        assertEquals(List.of("John", "Bob"), firstNames(first.getContent()));
+        assertTrue(first.hasNext());
+        assertEquals(List.of("Alice", "Carol"), firstNames(second.getContent()));
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testEmployeeSortResolvesCaseInsensitiveFieldNames() {
+        Slice<Employee> result = employeeRepository.findSlice(
+                EmployeeSpecifications.withFilters(null, null, null, null, null, null),
+                Pageable.unpaged(EmployeeSort.of("FIRSTNAME", "asc")));
+
+        assertEquals(List.of("Alice", "Bob", "Carol", "Jane", "John"), firstNames(result.getContent()));
+    }
+
+    @Test
+    void testUpdatedAfterBreaksTimestampTiesById() {
+        LocalDateTime watermark = LocalDateTime.of(2026, 1, 1, 12, 0);
+        List<Long> ids = findAll(EmployeeSpecifications.withFilters(null, null, null, null, null, null)).stream()
+                .map(Employee::getId).toList();
+        // John before the watermark, Jane and Bob at it, Alice and Carol after it
+        setUpdatedAt(ids.subList(0, 1), watermark.minusHours(1));
+        setUpdatedAt(ids.subList(1, 3), watermark);
+        setUpdatedAt(ids.subList(3, 5), watermark.plusHours(1));
+
+        List<String> after = firstNames(findAll(EmployeeSpecifications.updatedAfter(watermark, ids.get(1))));
+        // Detach them so the next query does not flush them and @PreUpdate does not touch their timestamps
+        entityManager.clear();
+        List<String> atMost = firstNames(findAll(EmployeeSpecifications.updatedAtMost(watermark)));
+
+        assertEquals(List.of("Bob", "Alice", "Carol"), after);
+        assertEquals(List.of("John", "Jane", "Bob"), atMost);
+    }
+
+    @Test
+    void testCursorPagesVisitEveryRowOnceWithNullsLowest() {
+        assertEquals(List.of("Carol", "John", "Bob", "Jane", "Alice"), walkCursor("salary", "asc"));
+        assertEquals(List.of("Alice", "Jane", "Bob", "John", "Carol"), walkCursor("salary", "desc"));
+    }
+
+    @Test
+    void testCursorBreaksSortTiesById() {
+        assertEquals(List.of("John", "Bob", "Alice", "Carol", "Jane"), walkCursor("department", "asc"));
+        assertEquals(List.of("Jane", "Carol", "Alice", "Bob", "John"), walkCursor("department", "desc"));
+        assertEquals(List.of("Carol", "Alice", "Bob", "Jane", "John"), walkCursor("id", "desc"));
+    }
+
+    @Test
+    void testMalformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> EmployeeCursor.decode("not a cursor"));
+        // Valid base64 of "encryptedEmail,ASC,1,x": not a sortable property
+        assertThrows(IllegalArgumentException.class, () -> EmployeeCursor.decode("ZW5jcnlwdGVkRW1haWwsQVNDLDEseA"));
+    }
+
+    // Read every page of two rows, passing the cursor through its token like a client would
+    private List<String> walkCursor(String sortBy, String sortDir) {
+        List<String> names = new ArrayList<>();
+        EmployeeCursor cursor = EmployeeCursor.first(sortBy, sortDir);
+        while (true) {
+            Slice<Employee> page = employeeRepository.findSlice(cursor.toSpecification(), PageRequest.of(0, 2, cursor.toSort()));
+            names.addAll(firstNames(page.getContent()));
+            if (!page.hasNext()) {
+                return names;
+            }
+            cursor = EmployeeCursor.decode(cursor.after(page.getContent().get(page.getNumberOfElements() - 1)).encode());
+        }
+    }
+
+    private List<Employee> findAll(Specification<Employee> specification) {
+        return employeeRepository.findSlice(specification, Pageable.unpaged(EmployeeSort.of("id", "asc"))).getContent();
+    }
+
+    private static List<String> firstNames(List<Employee> employees) {
+        return employees.stream().map(Employee::getFirstName).toList();
+    }
+
+    // A bulk update, since @PreUpdate would overwrite the timestamp of a saved entity
+    private void setUpdatedAt(List<Long> ids, LocalDateTime updatedAt) {
+        entityManager.getEntityManager().createQuery("update Employee e set e.updatedAt = :updatedAt where e.id in :ids")
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    private void persist(String firstName, String lastName, String email, String department, String position, Double salary) {
+        Employee employee = new Employee(firstName, lastName, email);
+        employee.setDepartment(department);
+        employee.setPosition(position);
+        employee.setSalary(salary);
+        entityManager.persistAndFlush(employee);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.employee_managment.repository;
+
+import com.example.employee_managment.dto.ExportSummary;
+import com.example.employee_managment.model.ExportHistory;
+import com.example.employee_managment.model.ExportPayload;
+import com.example.employee_managment.service.encryption.EncryptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The Liquibase changelog targets MySQL, so these tests let Hibernate create the H2 schema
+@DataJpaTest(properties = "spring.liquibase.enabled=false")
+@ActiveProfiles("test")
+@Import(EncryptionService.class)
+class ExportHistoryRepositoryTest {
+
+    @Autowired
+    private ExportHistoryRepository exportHistoryRepository;
+
+    @Autowired
+    private ExportPayloadRepository exportPayloadRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            ExportHistory export = new ExportHistory("EXP_" + i, ExportHistory.ExportType.CSV, "{}", "id");
+            export.setUserId(i % 2 == 0 ? "alice" : "bob");
+            export.setCreatedAt(LocalDateTime.now().minusMinutes(10 - i));
+            exportHistoryRepository.save(export);
+        }
+    }
+
+    @Test
+    void testSummariesArePagedNewestFirst() {
+        Page<ExportSummary> first = exportHistoryRepository.findSummariesBy(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertEquals(5, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+        assertEquals(List.of("EXP_4", "EXP_3"), first.map(ExportSummary::getReferenceId).getContent());
+        assertEquals(ExportHistory.ExportStatus.PENDING, first.getContent().get(0).getStatus());
+    }
+
+    @Test
+    void testUserSummariesOnlyListTheUsersExports() {
+        Page<ExportSummary> alice = exportHistoryRepository.findSummariesByUserId("alice",
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertEquals(List.of("EXP_4", "EXP_2", "EXP_0"), alice.map(ExportSummary::getReferenceId).getContent());
+        assertTrue(alice.getContent().stream().allMatch(summary -> "alice".equals(summary.getUserId())));
+    }
+
+    @Test
+    void testLegacyPayloadIsStoredApartFromTheExport() {
+        ExportHistory export = exportHistoryRepository.findByReferenceId("EXP_0").orElseThrow();
+        exportPayloadRepository.save(new ExportPayload(export.getId(), "id\n1\n"));
+
+        assertEquals("id\n1\n", exportPayloadRepository.findById(export.getId()).orElseThrow().getCsvData());
+        assertTrue(exportPayloadRepository.findById(export.getId() + 100).isEmpty());
+    }
+
+    @Test
+    void testTransitionsOnlyApplyUnderTheCallersLease() {
+        ExportHistory export = exportHistoryRepository.findByReferenceId("EXP_0").orElseThrow();
+        export.setLeaseOwner("node-b");
+        exportHistoryRepository.save(export);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(0, exportHistoryRepository.markProcessing("EXP_0", "node-a", now, "v1", now));
+        assertEquals(1, exportHistoryRepository.markProcessing("EXP_0", "node-b", now, "v1", now));
+        assertEquals(0, exportHistoryRepository.markCompleted("EXP_0", "node-a", 10, 10L, "EXP_0.csv", 100,
+                "abc", null, null, now));
+        assertEquals(0, exportHistoryRepository.markFailed("EXP_0", "node-a", "boom", now));
+        assertEquals(1, exportHistoryRepository.markCompleted("EXP_0", "node-b", 10, 10L, "EXP_0.csv", 100,
+                "abc", null, null, now));
+        entityManager.clear();
+
+        ExportHistory completed = exportHistoryRepository.findByReferenceId("EXP_0").orElseThrow();
+        assertEquals(ExportHistory.ExportStatus.COMPLETED, completed.getStatus());
+        assertEquals("EXP_0.csv", completed.getFilePath());
+        assertNull(completed.getErrorMessage());
+    }
+
+    @Test
+    void testCancelCanOnlyBeRequestedForRunningExports() {
+        ExportHistory export = exportHistoryRepository.findByReferenceId("EXP_1").orElseThrow();
+        export.setStatus(ExportHistory.ExportStatus.PROCESSING);
+        exportHistoryRepository.save(export);
+
+        assertEquals(1, exportHistoryRepository.requestCancel("EXP_1"));
+        assertEquals(0, exportHistoryRepository.requestCancel("EXP_2"));
+        assertEquals(List.of("EXP_1"), exportHistoryRepository.findCancelRequested(List.of("EXP_1", "EXP_2")));
+    }
+}
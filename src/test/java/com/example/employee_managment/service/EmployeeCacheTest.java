@@ -0,0 +1,122 @@
+package com.example.employee_managment.service;
+
+import com.example.employee_managment.model.Employee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeCacheTest {
+
+    private final EmployeeCache cache = new EmployeeCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void testLookupByEmailReusesTheEntryCachedById() {
+        AtomicInteger loads = new AtomicInteger();
+        Employee john = employee(1L, "john.doe@example.com");
+
+        cache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(john);
+        });
+        Optional<Employee> byEmail = cache.getByEmail("john.doe@example.com", email -> {
+            loads.incrementAndGet();
+            return Optional.of(john);
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, byEmail.orElseThrow().getId());
+    }
+
+    @Test
+    void testHitsAreCopies() {
+        cache.getById(1L, id -> Optional.of(employee(1L, "john.doe@example.com")));
+
+        cache.getById(1L, id -> Optional.empty()).orElseThrow().setFirstName("Changed");
+
+        assertEquals("John", cache.getById(1L, id -> Optional.empty()).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void testInvalidationRemovesBothIdAndEmail() {
+        Employee john = employee(1L, "john.doe@example.com");
+        cache.getById(1L, id -> Optional.of(john));
+
+        cache.invalidate(john);
+
+        assertTrue(cache.getById(1L, id -> Optional.empty()).isEmpty());
+        assertTrue(cache.getByEmail("john.doe@example.com", email -> Optional.empty()).isEmpty());
+    }
+
+    @Test
+    void testLoadThatRacedAWriteIsNotCached() {
+        Employee stale = employee(1L, "john.doe@example.com");
+
+        // The row is updated and invalidated after the loader read it, before it is cached
+        cache.getById(1L, id -> {
+            cache.invalidate(stale);
+            return Optional.of(stale);
+        });
+
+        assertTrue(cache.getById(1L, id -> Optional.empty()).isEmpty());
+    }
+
+    @Test
+    void testStatisticsArePublished() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.getById(1L, id -> Optional.of(employee(1L, "john.doe@example.com")));
+        cache.getById(1L, id -> Optional.empty());
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "employees.by-id", "result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "employees.by-id", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testLookupLatencyIsTimedByResult() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.getById(1L, id -> Optional.of(employee(1L, "john.doe@example.com")));
+        cache.getById(1L, id -> Optional.empty());
+        cache.getById(1L, id -> Optional.empty());
+        cache.getByEmail("jane.doe@example.com", email -> Optional.empty());
+
+        assertEquals(2, registry.get("employees.cache.lookup").tags("cache", "employees.by-id", "result", "hit").timer().count());
+        assertEquals(1, registry.get("employees.cache.lookup").tags("cache", "employees.by-id", "result", "miss").timer().count());
+        assertEquals(1, registry.get("employees.cache.lookup").tags("cache", "employees.by-email", "result", "miss").timer().count());
+    }
+
+    @Test
+    void testDefersToTheSecondLevelCacheWhenItIsEnabled() {
+        EmployeeCache deferring = new EmployeeCache(100, Duration.ofMinutes(1), true);
+        AtomicInteger loads = new AtomicInteger();
+        Employee john = employee(1L, "john.doe@example.com");
+
+        deferring.getById(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(john);
+        });
+        deferring.getById(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(john);
+        });
+        deferring.getByEmail("john.doe@example.com", email -> {
+            loads.incrementAndGet();
+            return Optional.of(john);
+        });
+
+        assertEquals(3, loads.get());
+    }
+
+    private static Employee employee(Long id, String email) {
+        Employee employee = new Employee("John", "Doe", email);
+        employee.setId(id);
+        return employee;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.employee_managment.service;
+
+import com.example.employee_managment.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeCountCacheTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @InjectMocks
+    private EmployeeCountCache countCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(countCache, "maxAge", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testOnlyTheFirstReadCounts() {
+        when(employeeRepository.count()).thenReturn(10L);
+
+        assertEquals(10, countCache.getEstimatedCount());
+        assertEquals(10, countCache.getEstimatedCount());
+
+        verify(employeeRepository, times(1)).count();
+    }
+
+    @Test
+    void testWritesAdjustTheCountUntilTheNextRefresh() {
+        when(employeeRepository.count()).thenReturn(10L, 13L);
+        countCache.getEstimatedCount();
+
+        countCache.added();
+        countCache.added();
+        countCache.removed();
+        assertEquals(11, countCache.getEstimatedCount());
+
+        // Another instance added two more
+        countCache.refreshIfStale();
+        assertEquals(13, countCache.getEstimatedCount());
+    }
+
+    @Test
+    void testFreshCountIsNotRefreshed() {
+        when(employeeRepository.count()).thenReturn(10L);
+        countCache.getEstimatedCount();
+
+        countCache.refreshIfStale();
+
+        verify(employeeRepository, times(1)).count();
+    }
+}
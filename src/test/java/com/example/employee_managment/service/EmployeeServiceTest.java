@@ -7,8 +7,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
@@ -25,6 +27,12 @@ class EmployeeServiceTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EmployeeCountCache countCache;
+
+    @Spy
+    private EmployeeCache employeeCache = new EmployeeCache(100, Duration.ofMinutes(1));
+
     @InjectMocks
     private EmployeeService employeeService;
 
@@ -73,6 +81,7 @@ class EmployeeServiceTest {
         assertEquals("alice.brown@example.com", result.getEmail());
         verify(employeeRepository).existsByEmail("alice.brown@example.com");
         verify(employeeRepository).save(newEmployee);
+        verify(countCache).added();
     }
 
     @Test
@@ -120,6 +129,24 @@ class EmployeeServiceTest {
         verify(employeeRepository).findById(1L);
     }
 
+    @Test
+    void testGetEmployeeByIdIsCachedUntilUpdated() {
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee1));
+        when(employeeRepository.save(any(Employee.class))).thenReturn(employee1);
+
+        employeeService.getEmployeeById(1L);
+        assertEquals("John", employeeService.getEmployeeById(1L).orElseThrow().getFirstName());
+        assertEquals("John", employeeService.getEmployeeByEmail("john.doe@example.com").orElseThrow().getFirstName());
+        verify(employeeRepository, times(1)).findById(1L);
+
+        Employee updateDetails = new Employee();
+        updateDetails.setFirstName("Johnny");
+        employeeService.updateEmployee(1L, updateDetails);
+
+        assertEquals("Johnny", employeeService.getEmployeeById(1L).orElseThrow().getFirstName());
+        verify(employeeCache).invalidate(employee1);
+    }
+
     @Test
     void testGetEmployeeByIdNotFound() {
         // Arrange
@@ -212,6 +239,7 @@ class EmployeeServiceTest {
         // Assert
         verify(employeeRepository).findById(1L);
         verify(employeeRepository).delete(employee1);
+        verify(countCache).removed();
     }
 
     @Test
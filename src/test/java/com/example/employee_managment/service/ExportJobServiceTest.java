@@ -0,0 +1,146 @@
+package com.example.employee_managment.service;
+
+import com.example.employee_managment.model.ExportHistory;
+import com.example.employee_managment.repository.ExportHistoryRepository;
+import com.example.employee_managment.service.export.ExportArtifactStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobServiceTest {
+
+    @Mock
+    private ExportHistoryRepository exportHistoryRepository;
+
+    @Mock
+    private EmployeeService employeeService;
+
+    @Mock
+    private ExportArtifactStore artifactStore;
+
+    @InjectMocks
+    private ExportJobService exportJobService;
+
+    @Test
+    void testReusesCompletedExportOfCurrentData() {
+        // Arrange
+        ExportHistory completed = completedExport("v1");
+        when(exportHistoryRepository.findFirstByRequestHashAndStatusInOrderByCreatedAtDesc(eq("key"), any()))
+                .thenReturn(Optional.of(completed));
+        when(employeeService.getDataVersion()).thenReturn("v1");
+        when(artifactStore.exists("EXP_1.csv")).thenReturn(true);
+
+        // Act & Assert
+        assertEquals(Optional.of(completed), exportJobService.findReusableExport("key", true));
+    }
+
+    @Test
+    void testDoesNotReuseExportOfOlderData() {
+        // Arrange
+        when(exportHistoryRepository.findFirstByRequestHashAndStatusInOrderByCreatedAtDesc(eq("key"), any()))
+                .thenReturn(Optional.of(completedExport("v1")));
+        when(employeeService.getDataVersion()).thenReturn("v2");
+
+        // Act & Assert
+        assertTrue(exportJobService.findReusableExport("key", true).isEmpty());
+        verify(artifactStore, never()).exists(any());
+    }
+
+    @Test
+    void testDoesNotReuseExportWhoseArtifactIsGone() {
+        // Arrange
+        when(exportHistoryRepository.findFirstByRequestHashAndStatusInOrderByCreatedAtDesc(eq("key"), any()))
+                .thenReturn(Optional.of(completedExport("v1")));
+        when(employeeService.getDataVersion()).thenReturn("v1");
+        when(artifactStore.exists("EXP_1.csv")).thenReturn(false);
+
+        // Act & Assert
+        assertTrue(exportJobService.findReusableExport("key", true).isEmpty());
+    }
+
+    @Test
+    void testDeltaDoesNotReuseCompletedExport() {
+        // Arrange
+        when(exportHistoryRepository.findFirstByRequestHashAndStatusInOrderByCreatedAtDesc(eq("key"), any()))
+                .thenReturn(Optional.of(completedExport("v1")));
+
+        // Act & Assert
+        assertTrue(exportJobService.findReusableExport("key", false).isEmpty());
+        verify(employeeService, never()).getDataVersion();
+    }
+
+    @Test
+    void testAttachesToExportInFlight() {
+        // Arrange
+        ExportHistory pending = new ExportHistory("EXP_2", ExportHistory.ExportType.CSV, "{}", "id");
+        when(exportHistoryRepository.findByReferenceId("EXP_2")).thenReturn(Optional.of(pending));
+
+        // Act
+        assertNull(exportJobService.registerInFlight("key", "EXP_2"));
+        String duplicate = exportJobService.registerInFlight("key", "EXP_3");
+
+        // Assert
+        assertEquals("EXP_2", duplicate);
+        assertEquals(Optional.of(pending), exportJobService.findReusableExport("key", true));
+        verify(employeeService, never()).getDataVersion();
+    }
+
+    @Test
+    void testReleasedExportNoLongerInFlight() {
+        // Arrange
+        exportJobService.registerInFlight("key", "EXP_2");
+
+        // Act
+        exportJobService.releaseInFlight("EXP_2");
+
+        // Assert
+        assertNull(exportJobService.registerInFlight("key", "EXP_3"));
+    }
+
+    @Test
+    void testFailedExportIsNoLongerInFlight() {
+        // Arrange - the job ended without releasing its entry, e.g. it was cancelled before a worker picked it up
+        ExportHistory failed = new ExportHistory("EXP_2", ExportHistory.ExportType.CSV, "{}", "id");
+        failed.setStatus(ExportHistory.ExportStatus.FAILED);
+        when(exportHistoryRepository.findByReferenceId("EXP_2")).thenReturn(Optional.of(failed));
+        exportJobService.registerInFlight("key", "EXP_2");
+
+        // Act & Assert
+        assertTrue(exportJobService.findReusableExport("key", true).isEmpty());
+        assertNull(exportJobService.registerInFlight("key", "EXP_3"));
+    }
+
+    @Test
+    void testExportRunByAnotherInstanceIsNotReusedOnceFinished() {
+        // Arrange - submitted here, then run and completed by another instance, which never releases this entry
+        ExportHistory completed = completedExport("v1");
+        exportJobService.registerInFlight("key", "EXP_1");
+        when(exportHistoryRepository.findByReferenceId("EXP_1")).thenReturn(Optional.of(completed));
+        when(exportHistoryRepository.findFirstByRequestHashAndStatusInOrderByCreatedAtDesc(eq("key"), any()))
+                .thenReturn(Optional.of(completed));
+        when(employeeService.getDataVersion()).thenReturn("v2");
+
+        // Act & Assert - stale data is not reused, and a delta starts a new export instead of repeating the old one
+        assertTrue(exportJobService.findReusableExport("key", true).isEmpty());
+        assertTrue(exportJobService.findReusableExport("key", false).isEmpty());
+        assertNull(exportJobService.registerInFlight("key", "EXP_4"));
+    }
+
+    private static ExportHistory completedExport(String dataVersion) {
+        ExportHistory export = new ExportHistory("EXP_1", ExportHistory.ExportType.CSV, "{}", "id");
+        export.setStatus(ExportHistory.ExportStatus.COMPLETED);
+        export.setDataVersion(dataVersion);
+        export.setFilePath("EXP_1.csv");
+        return export;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowEncoderTest {
+
+    @Test
+    void testHeaderUsesDisplayNamesInRequestedOrder() throws IOException {
+        CsvRowEncoder encoder = CsvRowEncoder.compile("salary, FIRSTNAME,hireDate,unknownField");
+
+        String header = encode(out -> encoder.writeHeader(out));
+
+        assertEquals("Salary,First Name,Hire Date,unknownField\n", header);
+    }
+
+    @Test
+    void testRowFormatsEveryValueType() throws IOException {
+        Employee employee = new Employee("John", "Doe", "john.doe@example.com");
+        employee.setId(42L);
+        employee.setSalary(75000.5);
+        employee.setHireDate(LocalDate.of(2021, 3, 7));
+        employee.setCreatedAt(LocalDateTime.of(2021, 3, 7, 9, 5, 1));
+
+        CsvRowEncoder encoder = CsvRowEncoder.compile("id,firstName,salary,hireDate,createdAt,unknownField");
+
+        String row = encode(out -> encoder.writeRow(out, employee));
+
+        assertEquals("\"42\",\"John\",\"75000.50\",\"2021-03-07\",\"2021-03-07 09:05:01\",\"\"\n", row);
+    }
+
+    @Test
+    void testPropertiesListEachKnownFieldOnce() {
+        CsvRowEncoder encoder = CsvRowEncoder.compile("salary,unknownField,firstName,SALARY");
+
+        assertEquals(List.of("salary", "firstName"), encoder.getProperties());
+        assertEquals(List.of("id"), CsvRowEncoder.compile("unknownField").getProperties());
+    }
+
+    @Test
+    void testTupleRowReadsValuesByPropertyIndex() throws IOException {
+        CsvRowEncoder encoder = CsvRowEncoder.compile("salary,unknownField,firstName,salary,hireDate");
+        Object[] tuple = {75000.5, "John", LocalDate.of(2021, 3, 7)};
+
+        String row = encode(out -> encoder.writeRow(out, tuple));
+
+        assertEquals("\"75000.50\",\"\",\"John\",\"75000.50\",\"2021-03-07\"\n", row);
+    }
+
+    @Test
+    void testNullValuesAreEmptyCells() throws IOException {
+        Employee employee = new Employee();
+        CsvRowEncoder encoder = CsvRowEncoder.compile("firstName,salary,hireDate,updatedAt");
+        employee.setUpdatedAt(null);
+
+        String row = encode(out -> encoder.writeRow(out, employee));
+
+        assertEquals("\"\",\"\",\"\",\"\"\n", row);
+    }
+
+    @Test
+    void testQuotesAreDoubledAndUnicodeIsUtf8() throws IOException {
+        Employee employee = new Employee("Ann \"The Boss\"", "Müller-日本😀", "ann@example.com");
+        CsvRowEncoder encoder = CsvRowEncoder.compile("firstName,lastName");
+
+        String row = encode(out -> encoder.writeRow(out, employee));
+
+        assertEquals("\"Ann \"\"The Boss\"\"\",\"Müller-日本😀\"\n", row);
+    }
+
+    @Test
+    void testMoneyMatchesStringFormat() throws IOException {
+        double[] samples = {0, 0.005, 0.015, 1.005, 2.675, 0.125, 99.995, 75000, 75000.456, 123456789.99,
+                9.999999999E8, 1e9, 1e15, 1e20, -0.001, -12.345, Double.MIN_VALUE};
+        for (double value : samples) {
+            assertMoney(value);
+        }
+
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            assertMoney(Math.round(random.nextDouble() * 200_000_000) / 1000.0);
+            assertMoney(random.nextDouble() * 1_000_000);
+        }
+    }
+
+    @Test
+    void testOutputLargerThanBufferIsFlushedInOrder() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StringBuilder expected = new StringBuilder();
+
+        try (CsvOutput out = new CsvOutput(bytes, 64)) {
+            for (int i = 0; i < 1000; i++) {
+                out.writeEscaped("row-\"" + i + "\"-é");
+                out.writeByte('\n');
+                expected.append("row-\"\"").append(i).append("\"\"-é\n");
+            }
+            assertEquals(expected.toString().getBytes(StandardCharsets.UTF_8).length, out.getBytesWritten());
+        }
+
+        assertEquals(expected.toString(), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    private static void assertMoney(double value) throws IOException {
+        String actual = encode(out -> out.writeMoney(value));
+        assertEquals(String.format(Locale.ROOT, "%.2f", value), actual, "value " + value);
+    }
+
+    private interface CsvWrite {
+        void write(CsvOutput out) throws IOException;
+    }
+
+    private static String encode(CsvWrite write) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CsvOutput out = new CsvOutput(bytes)) {
+            write.write(out);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
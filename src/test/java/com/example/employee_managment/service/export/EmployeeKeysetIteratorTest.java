@@ -0,0 +1,140 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.repository.EmployeeRepository;
+import com.example.employee_managment.repository.EmployeeSpecifications;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeKeysetIteratorTest {
+
+    private static final List<String> PROPERTIES = List.of("firstName", "id");
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Test
+    void testIteratesInKeysetOrderUntilLastSlice() {
+        // Arrange - 5 rows, batch size 2
+        AtomicLong served = new AtomicLong();
+        when(employeeRepository.findColumnSlice(any(), eq(PROPERTIES), any(Pageable.class)))
+                .thenAnswer(invocation -> sliceAfter(served, invocation.getArgument(2), 5));
+
+        EmployeeKeysetIterator iterator = new EmployeeKeysetIterator(employeeRepository, EmployeeSpecifications.all(), PROPERTIES, 0L, 2, 2, 2, 250, System::nanoTime);
+
+        // Act
+        List<Long> ids = new ArrayList<>();
+        int batches = 0;
+        while (iterator.hasNext()) {
+            iterator.next().forEach(row -> ids.add((Long) row[1]));
+            batches++;
+        }
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids);
+        assertEquals(3, batches);
+        assertEquals(5L, iterator.getLastId());
+        // Each slice continues after the last id of the previous one
+        ArgumentCaptor<Specification<Employee>> specifications = ArgumentCaptor.forClass(Specification.class);
+        verify(employeeRepository, times(3)).findColumnSlice(specifications.capture(), eq(PROPERTIES), any(Pageable.class));
+        assertEquals(List.of(0L, 2L, 4L), specifications.getAllValues().stream().map(EmployeeKeysetIteratorTest::lastIdOf).toList());
+    }
+
+    @Test
+    void testEmptyTable() {
+        // Arrange
+        when(employeeRepository.findColumnSlice(any(), any(), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+
+        EmployeeKeysetIterator iterator = new EmployeeKeysetIterator(employeeRepository, EmployeeSpecifications.all(), PROPERTIES, 0L);
+
+        // Act & Assert
+        assertFalse(iterator.hasNext());
+        verify(employeeRepository, times(1)).findColumnSlice(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void testRequiresIdProperty() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EmployeeKeysetIterator(employeeRepository, EmployeeSpecifications.all(), List.of("firstName"), 0L));
+    }
+
+    @Test
+    void testBatchSizeAdaptsToFetchLatency() {
+        // Arrange - a fake clock that advances by the configured latency on every fetch
+        AtomicLong clock = new AtomicLong();
+        AtomicLong fetchLatencyMillis = new AtomicLong(10);
+        AtomicLong served = new AtomicLong();
+        when(employeeRepository.findColumnSlice(any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    clock.addAndGet(fetchLatencyMillis.get() * 1_000_000L);
+                    return sliceAfter(served, invocation.getArgument(2), 1_000_000);
+                });
+
+        EmployeeKeysetIterator iterator = new EmployeeKeysetIterator(employeeRepository, EmployeeSpecifications.all(), PROPERTIES, 0L, 100, 50, 400, 100, clock::get);
+
+        // Act & Assert - fast fetches grow the batch up to the maximum
+        iterator.next();
+        assertEquals(200, iterator.getBatchSize());
+        iterator.next();
+        assertEquals(400, iterator.getBatchSize());
+        iterator.next();
+        assertEquals(400, iterator.getBatchSize());
+
+        // Slow fetches shrink it down to the minimum
+        fetchLatencyMillis.set(500);
+        iterator.next();
+        assertEquals(200, iterator.getBatchSize());
+        iterator.next();
+        assertEquals(100, iterator.getBatchSize());
+        iterator.next();
+        assertEquals(50, iterator.getBatchSize());
+        iterator.next();
+        assertEquals(50, iterator.getBatchSize());
+    }
+
+    // The id a captured slice specification continues after, read from the predicate it builds
+    @SuppressWarnings("unchecked")
+    private static long lastIdOf(Specification<Employee> specification) {
+        Root<Employee> root = mock(Root.class);
+        Path<Object> id = mock(Path.class);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        when(root.get("id")).thenReturn(id);
+
+        specification.toPredicate(root, mock(CriteriaQuery.class), cb);
+
+        ArgumentCaptor<Long> lastId = ArgumentCaptor.forClass(Long.class);
+        verify(cb).greaterThan(any(), lastId.capture());
+        return lastId.getValue();
+    }
+
+    // Serves the next page of (firstName, id) rows, continuing after the last id already served
+    private static Slice<Object[]> sliceAfter(AtomicLong served, Pageable pageable, long maxId) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = served.get() + 1; id <= maxId && rows.size() < pageable.getPageSize(); id++) {
+            rows.add(new Object[] {"First" + id, id});
+        }
+        served.addAndGet(rows.size());
+        return new SliceImpl<>(rows, pageable, served.get() < maxId);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.dto.ExportSummary;
+import com.example.employee_managment.model.ExportHistory;
+import com.example.employee_managment.repository.ExportHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportEventPublisherTest {
+
+    @Mock
+    private ExportHistoryRepository exportHistoryRepository;
+
+    @Mock
+    private ExportProgressRegistry progressRegistry;
+
+    @InjectMocks
+    private ExportEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(eventPublisher, "timeout", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testUnknownExportHasNoStream() {
+        when(exportHistoryRepository.findSummaryByReferenceId("EXP_X")).thenReturn(Optional.empty());
+
+        assertTrue(eventPublisher.subscribe("EXP_X").isEmpty());
+        assertEquals(0, eventPublisher.getWatcherCount());
+    }
+
+    @Test
+    void testFinishedExportIsNotWatched() {
+        ExportSummary completed = summary("EXP_1", ExportHistory.ExportStatus.COMPLETED, 10L);
+        when(exportHistoryRepository.findSummaryByReferenceId("EXP_1")).thenReturn(Optional.of(completed));
+
+        assertTrue(eventPublisher.subscribe("EXP_1").isPresent());
+        assertEquals(0, eventPublisher.getWatcherCount());
+    }
+
+    @Test
+    void testTerminalEventEndsTheWatch() {
+        ExportSummary pending = summary("EXP_1", ExportHistory.ExportStatus.PENDING, null);
+        when(exportHistoryRepository.findSummaryByReferenceId("EXP_1")).thenReturn(Optional.of(pending));
+        eventPublisher.subscribe("EXP_1");
+        eventPublisher.subscribe("EXP_1");
+        assertEquals(2, eventPublisher.getWatcherCount());
+
+        ExportHistory failed = new ExportHistory();
+        failed.setReferenceId("EXP_1");
+        failed.setStatus(ExportHistory.ExportStatus.FAILED);
+        failed.setErrorMessage("boom");
+        eventPublisher.statusChanged(failed);
+
+        assertEquals(0, eventPublisher.getWatcherCount());
+    }
+
+    @Test
+    void testWatcherJoiningAsTheExportFinishesStillGetsTheOutcome() {
+        ExportSummary processing = summary("EXP_1", ExportHistory.ExportStatus.PROCESSING, 0L);
+        when(exportHistoryRepository.findSummaryByReferenceId("EXP_1")).thenReturn(Optional.of(processing));
+        when(progressRegistry.get("EXP_1")).thenReturn(Optional.empty());
+        eventPublisher.subscribe("EXP_1");
+
+        // The export completes after the second watcher read its state, but before it joined
+        ExportHistory completed = new ExportHistory();
+        completed.setReferenceId("EXP_1");
+        completed.setStatus(ExportHistory.ExportStatus.COMPLETED);
+        eventPublisher.statusChanged(completed);
+        eventPublisher.subscribe("EXP_1");
+        assertEquals(1, eventPublisher.getWatcherCount());
+
+        ExportSummary done = summary("EXP_1", ExportHistory.ExportStatus.COMPLETED, 5L);
+        when(exportHistoryRepository.findSummariesByReferenceIdIn(List.of("EXP_1"))).thenReturn(List.of(done));
+        eventPublisher.pushUpdates();
+
+        assertEquals(0, eventPublisher.getWatcherCount());
+    }
+
+    @Test
+    void testOnlyExportsRunningElsewhereAreReadFromTheDatabase() {
+        ExportSummary local = summary("EXP_LOCAL", ExportHistory.ExportStatus.PROCESSING, 0L);
+        ExportSummary remote = summary("EXP_REMOTE", ExportHistory.ExportStatus.PROCESSING, 0L);
+        when(exportHistoryRepository.findSummaryByReferenceId("EXP_LOCAL")).thenReturn(Optional.of(local));
+        when(exportHistoryRepository.findSummaryByReferenceId("EXP_REMOTE")).thenReturn(Optional.of(remote));
+        ExportProgress progress = new ExportProgress();
+        when(progressRegistry.get(any())).thenReturn(Optional.empty());
+        when(progressRegistry.get("EXP_LOCAL")).thenReturn(Optional.of(progress));
+        eventPublisher.subscribe("EXP_LOCAL");
+        eventPublisher.subscribe("EXP_REMOTE");
+
+        // The remote job finished on another instance
+        ExportSummary remoteDone = summary("EXP_REMOTE", ExportHistory.ExportStatus.COMPLETED, 5L);
+        when(exportHistoryRepository.findSummariesByReferenceIdIn(List.of("EXP_REMOTE"))).thenReturn(List.of(remoteDone));
+        progress.addRowsWritten(3);
+        eventPublisher.pushUpdates();
+
+        verify(exportHistoryRepository).findSummariesByReferenceIdIn(List.of("EXP_REMOTE"));
+        assertEquals(1, eventPublisher.getWatcherCount());
+    }
+
+    @Test
+    void testNoQueryWithoutWatchers() {
+        eventPublisher.pushUpdates();
+
+        verify(exportHistoryRepository, never()).findSummariesByReferenceIdIn(any());
+    }
+
+    private static ExportSummary summary(String referenceId, ExportHistory.ExportStatus status, Long records) {
+        ExportSummary summary = mock(ExportSummary.class);
+        lenient().when(summary.getReferenceId()).thenReturn(referenceId);
+        lenient().when(summary.getStatus()).thenReturn(status);
+        lenient().when(summary.getProcessedRecords()).thenReturn(records);
+        lenient().when(summary.getTotalRecords()).thenReturn(records);
+        return summary;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.ExportHistory;
+import com.example.employee_managment.repository.ExportHistoryRepository;
+import com.example.employee_managment.service.encryption.EncryptionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Claims run in their own transactions on several threads, so rows must be committed rather than rolled back per test
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "app.export.lease.candidates=3"})
+@ActiveProfiles("test")
+@Import({ExportJobClaimer.class, EncryptionService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExportJobClaimerTest {
+
+    @Autowired
+    private ExportJobClaimer claimer;
+
+    @Autowired
+    private ExportHistoryRepository exportHistoryRepository;
+
+    @AfterEach
+    void tearDown() {
+        exportHistoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testConcurrentWorkersClaimEachExportOnce() throws Exception {
+        List<ExportHistory> exports = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            exports.add(export("EXP_" + i, "user" + (i % 4), ExportHistory.ExportStatus.PENDING, i));
+        }
+        exportHistoryRepository.saveAll(exports);
+
+        // Several workers claim until nothing is left
+        List<String> claimed = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                tasks.add(() -> {
+                    Optional<String> next;
+                    while ((next = claimer.claimNext()).isPresent()) {
+                        claimed.add(next.get());
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> result : workers.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertEquals(30, claimed.size());
+        assertEquals(30, claimed.stream().distinct().count());
+        for (ExportHistory export : exportHistoryRepository.findAll()) {
+            assertEquals(claimer.getNodeId(), export.getLeaseOwner());
+            assertTrue(export.getLeaseExpiresAt().isAfter(LocalDateTime.now()));
+        }
+        assertTrue(claimer.claimNext().isEmpty());
+    }
+
+    @Test
+    void testExpiredLeaseIsReclaimedAndLiveOneIsNot() {
+        ExportHistory orphaned = export("EXP_ORPHANED", "alice", ExportHistory.ExportStatus.PROCESSING, 0);
+        orphaned.setLeaseOwner("dead-node");
+        orphaned.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(1));
+        orphaned.setCheckpointKey(42L);
+        ExportHistory running = export("EXP_RUNNING", "bob", ExportHistory.ExportStatus.PROCESSING, 1);
+        running.setLeaseOwner("live-node");
+        running.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(1));
+        exportHistoryRepository.saveAll(List.of(orphaned, running));
+
+        assertEquals(Optional.of("EXP_ORPHANED"), claimer.claimNext());
+        assertTrue(claimer.claimNext().isEmpty());
+
+        // Back to PENDING under the new lease, checkpoint kept for the resume
+        ExportHistory reclaimed = exportHistoryRepository.findByReferenceId("EXP_ORPHANED").orElseThrow();
+        assertEquals(ExportHistory.ExportStatus.PENDING, reclaimed.getStatus());
+        assertEquals(claimer.getNodeId(), reclaimed.getLeaseOwner());
+        assertEquals(42L, reclaimed.getCheckpointKey());
+    }
+
+    @Test
+    void testReleasedExportCanBeClaimedAgain() {
+        exportHistoryRepository.save(export("EXP_1", "alice", ExportHistory.ExportStatus.PENDING, 0));
+        assertEquals(Optional.of("EXP_1"), claimer.claimNext());
+        assertTrue(claimer.claimNext().isEmpty());
+
+        claimer.release("EXP_1");
+
+        assertEquals(Optional.of("EXP_1"), claimer.claimNext());
+    }
+
+    @Test
+    void testBusyUserDoesNotStarveOthers() {
+        ExportHistory aliceRunning = export("EXP_A0", "alice", ExportHistory.ExportStatus.PROCESSING, 0);
+        aliceRunning.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(1));
+        exportHistoryRepository.saveAll(List.of(aliceRunning,
+                export("EXP_A1", "alice", ExportHistory.ExportStatus.PENDING, 1),
+                export("EXP_A2", "alice", ExportHistory.ExportStatus.PENDING, 2),
+                export("EXP_B1", "bob", ExportHistory.ExportStatus.PENDING, 3)));
+
+        // bob has nothing running, so his newer export goes first
+        assertEquals(Optional.of("EXP_B1"), claimer.claimNext());
+    }
+
+    @Test
+    void testPickFairestPrefersOldestBetweenEquallyBusyUsers() {
+        ExportHistory a1 = export("a1", "alice", ExportHistory.ExportStatus.PENDING, 0);
+        ExportHistory b1 = export("b1", "bob", ExportHistory.ExportStatus.PENDING, 1);
+        ExportHistory c1 = export("c1", null, ExportHistory.ExportStatus.PENDING, 2);
+
+        assertSame(a1, ExportJobClaimer.pickFairest(List.of(a1, b1, c1), new HashMap<>()));
+        assertSame(c1, ExportJobClaimer.pickFairest(List.of(a1, b1, c1), new HashMap<>(Map.of("alice", 1L, "bob", 1L))));
+    }
+
+    private static ExportHistory export(String referenceId, String userId, ExportHistory.ExportStatus status, int ageRank) {
+        ExportHistory export = new ExportHistory(referenceId, ExportHistory.ExportType.CSV, "{}", "id");
+        export.setUserId(userId);
+        export.setStatus(status);
+        export.setCreatedAt(LocalDateTime.now().minusHours(1).plusSeconds(ageRank));
+        return export;
+    }
+}
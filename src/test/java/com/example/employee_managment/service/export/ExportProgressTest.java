@@ -0,0 +1,125 @@
+package com.example.employee_managment.service.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportProgressTest {
+
+    @Test
+    void testRateAndEtaUseElapsedTime() {
+        AtomicLong clock = new AtomicLong();
+        ExportProgress progress = new ExportProgress(clock::get);
+        progress.setExpectedRows(10_000);
+
+        progress.addRowsWritten(2_500);
+        clock.set(5_000_000_000L); // 5 seconds
+
+        assertEquals(500.0, progress.getRowsPerSecond(), 0.001);
+        assertEquals(25.0, progress.getPercentComplete());
+        assertEquals(15L, progress.getEstimatedSecondsRemaining());
+    }
+
+    @Test
+    void testUnknownTotalHasNoPercentOrEta() {
+        AtomicLong clock = new AtomicLong();
+        ExportProgress progress = new ExportProgress(clock::get);
+        progress.addRowsWritten(100);
+        clock.set(1_000_000_000L);
+
+        assertNull(progress.getPercentComplete());
+        assertNull(progress.getEstimatedSecondsRemaining());
+    }
+
+    @Test
+    void testNoRowsYetHasNoEta() {
+        ExportProgress progress = new ExportProgress(() -> 0L);
+        progress.setExpectedRows(100);
+
+        assertEquals(0.0, progress.getPercentComplete());
+        assertNull(progress.getEstimatedSecondsRemaining());
+    }
+
+    @Test
+    void testPercentIsRoundedAndCapped() {
+        assertEquals(33.3, ExportProgress.percentComplete(1, 3));
+        assertEquals(100.0, ExportProgress.percentComplete(0, 0));
+        assertEquals(100.0, ExportProgress.percentComplete(12, 10));
+    }
+
+    @Test
+    void testTrackedStreamCountsBytes() throws IOException {
+        ExportProgress progress = new ExportProgress();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (OutputStream out = progress.track(bytes)) {
+            out.write('a');
+            out.write(new byte[] {1, 2, 3, 4, 5}, 1, 3);
+        }
+
+        assertEquals(4, progress.getBytesWritten());
+        assertArrayEquals(new byte[] {'a', 2, 3, 4}, bytes.toByteArray());
+    }
+
+    @Test
+    void testCancelStopsAtNextCheck() throws ExportCancelledException {
+        ExportProgress progress = new ExportProgress();
+        progress.checkNotCancelled();
+
+        progress.cancel("Export cancelled by user");
+        progress.cancel("Export exceeded the maximum runtime");
+
+        ExportCancelledException e = assertThrows(ExportCancelledException.class, progress::checkNotCancelled);
+        assertEquals("Export cancelled by user", e.getMessage());
+        assertTrue(progress.isCancelled());
+    }
+
+    @Test
+    void testMaxRuntimeCancelsJob() throws ExportCancelledException {
+        AtomicLong clock = new AtomicLong();
+        ExportProgress progress = new ExportProgress(clock::get);
+        progress.setMaxRuntime(Duration.ofSeconds(10));
+
+        clock.set(10_000_000_000L);
+        progress.checkNotCancelled();
+
+        clock.set(10_000_000_001L);
+        ExportCancelledException e = assertThrows(ExportCancelledException.class, progress::checkNotCancelled);
+        assertEquals("Export exceeded the maximum runtime", e.getMessage());
+    }
+
+    @Test
+    void testResumedRowsCountTowardsPercentButNotRate() {
+        AtomicLong clock = new AtomicLong();
+        ExportProgress progress = new ExportProgress(clock::get);
+        progress.setExpectedRows(10_000);
+        progress.resumeFrom(5_000, 1_234);
+
+        progress.addRowsWritten(1_000);
+        clock.set(2_000_000_000L); // 2 seconds
+
+        assertEquals(500.0, progress.getRowsPerSecond(), 0.001);
+        assertEquals(60.0, progress.getPercentComplete());
+        assertEquals(8L, progress.getEstimatedSecondsRemaining());
+        assertEquals(1_234, progress.getBytesWritten());
+    }
+
+    @Test
+    void testSuspendStopsJobWithoutOverridingUserCancel() {
+        ExportProgress suspended = new ExportProgress();
+        suspended.suspend("Export suspended for shutdown");
+        assertThrows(ExportCancelledException.class, suspended::checkNotCancelled);
+        assertTrue(suspended.isSuspended());
+
+        ExportProgress cancelled = new ExportProgress();
+        cancelled.cancel("Export cancelled by user");
+        cancelled.suspend("Export suspended for shutdown");
+        assertFalse(cancelled.isSuspended());
+    }
+}
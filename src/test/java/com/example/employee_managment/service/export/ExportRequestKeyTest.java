@@ -0,0 +1,80 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.dto.ExportRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportRequestKeyTest {
+
+    @Test
+    void testEquivalentRequestsShareKey() {
+        ExportRequest first = filteredRequest();
+        first.setFields("id,firstName,salary");
+        first.setSortBy("hireDate");
+        first.setName("Smith");
+        first.setUserId("alice");
+        first.setPage(1);
+        first.setShards(2);
+
+        ExportRequest second = filteredRequest();
+        second.setFields(" ID , FIRSTNAME,salary");
+        second.setSortBy("HIREDATE");
+        second.setName("smith");
+        second.setUserId("bob");
+        second.setPage(7);
+
+        assertEquals(ExportRequestKey.of(first), ExportRequestKey.of(second));
+        assertEquals(64, ExportRequestKey.of(first).length());
+    }
+
+    @Test
+    void testOutputChangingParametersChangeKey() {
+        String base = ExportRequestKey.of(filteredRequest());
+
+        ExportRequest otherFields = filteredRequest();
+        otherFields.setFields("id,lastName");
+        ExportRequest otherSort = filteredRequest();
+        otherSort.setSortDir("desc");
+        ExportRequest otherFilter = filteredRequest();
+        otherFilter.setMinSalary(50000.0);
+
+        assertNotEquals(base, ExportRequestKey.of(otherFields));
+        assertNotEquals(base, ExportRequestKey.of(otherSort));
+        assertNotEquals(base, ExportRequestKey.of(otherFilter));
+    }
+
+    @Test
+    void testPageWindowOnlyMattersForUnfilteredExports() {
+        ExportRequest firstPage = new ExportRequest();
+        ExportRequest secondPage = new ExportRequest();
+        secondPage.setPage(2);
+
+        assertNotEquals(ExportRequestKey.of(firstPage), ExportRequestKey.of(secondPage));
+    }
+
+    @Test
+    void testDeltaKeyIsPerUserAndIgnoresSortAndPage() {
+        ExportRequest delta = filteredRequest();
+        delta.setMode(ExportRequest.ExportMode.DELTA);
+        delta.setUserId("alice");
+        ExportRequest reordered = filteredRequest();
+        reordered.setMode(ExportRequest.ExportMode.DELTA);
+        reordered.setUserId("alice");
+        reordered.setSortBy("salary");
+        reordered.setPage(3);
+        ExportRequest otherUser = filteredRequest();
+        otherUser.setMode(ExportRequest.ExportMode.DELTA);
+        otherUser.setUserId("bob");
+
+        assertEquals(ExportRequestKey.of(delta), ExportRequestKey.of(reordered));
+        assertNotEquals(ExportRequestKey.of(delta), ExportRequestKey.of(otherUser));
+        assertNotEquals(ExportRequestKey.of(delta), ExportRequestKey.of(filteredRequest()));
+    }
+
+    private static ExportRequest filteredRequest() {
+        ExportRequest request = new ExportRequest();
+        request.setDepartment("Engineering");
+        return request;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.ExportHistory;
+import com.example.employee_managment.model.ExportPayload;
+import com.example.employee_managment.repository.ExportHistoryRepository;
+import com.example.employee_managment.repository.ExportPayloadRepository;
+import com.example.employee_managment.service.encryption.EncryptionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Each batch commits on its own, like in production, so rows are cleaned up explicitly
+@DataJpaTest(properties = {"spring.liquibase.enabled=false", "app.export.retention.max-age=30d",
+        "app.export.retention.user-quota=300B", "app.export.retention.global-quota=500B",
+        "app.export.retention.batch-size=2", "app.export.retention.initial-delay-ms=3600000"})
+@ActiveProfiles("test")
+@Import({ExportRetentionSweeper.class, ExportStatusRegistry.class, EncryptionService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExportRetentionSweeperTest {
+
+    @Autowired
+    private ExportRetentionSweeper sweeper;
+
+    @Autowired
+    private ExportHistoryRepository exportHistoryRepository;
+
+    @Autowired
+    private ExportPayloadRepository exportPayloadRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private ExportArtifactStore artifactStore;
+
+    @AfterEach
+    void tearDown() {
+        exportPayloadRepository.deleteAllInBatch();
+        exportHistoryRepository.deleteAllInBatch();
+        meterRegistry.clear();
+    }
+
+    @Test
+    void testOldExportsExpireButKeepTheirRow() throws Exception {
+        completed("EXP_OLD", "alice", 100, 40);
+        completed("EXP_NEW", "alice", 100, 1);
+        ExportHistory legacy = completed("EXP_LEGACY", "bob", 50, 60);
+        exportPayloadRepository.save(new ExportPayload(legacy.getId(), "id\n1\n"));
+
+        sweeper.sweep();
+
+        assertEquals(List.of("EXP_LEGACY", "EXP_OLD"), expired());
+        ExportHistory old = exportHistoryRepository.findByReferenceId("EXP_OLD").orElseThrow();
+        assertEquals(ExportHistory.ExportStatus.COMPLETED, old.getStatus());
+        assertNull(old.getFilePath());
+        assertEquals(100L, old.getFileSize());
+        assertTrue(exportPayloadRepository.findById(legacy.getId()).isEmpty());
+        verify(artifactStore).delete("EXP_OLD.csv");
+        verify(artifactStore, never()).delete("EXP_NEW.csv");
+        assertEquals(2.0, meterRegistry.counter("export.retention.rows.reclaimed", "reason", "age").count());
+        assertEquals(150.0, meterRegistry.counter("export.retention.bytes.reclaimed", "reason", "age").count());
+        assertEquals(1, meterRegistry.timer("export.retention.sweep").count());
+    }
+
+    @Test
+    void testUserOverQuotaLosesOldestExportsFirst() {
+        for (int i = 0; i < 5; i++) {
+            completed("EXP_A" + i, "alice", 100, 10 - i);
+        }
+        completed("EXP_B0", "bob", 100, 20);
+
+        sweeper.sweep();
+
+        // Alice had 500 bytes for a 300 byte quota
+        assertEquals(List.of("EXP_A0", "EXP_A1"), expired());
+    }
+
+    @Test
+    void testStoreOverGlobalQuotaLosesOldestExportsOfAnyUser() {
+        for (int i = 0; i < 7; i++) {
+            completed("EXP_" + i, "user" + i, 100, 10 - i);
+        }
+
+        sweeper.sweep();
+
+        // 700 bytes for a 500 byte quota
+        assertEquals(List.of("EXP_0", "EXP_1"), expired());
+        assertEquals(200.0, meterRegistry.counter("export.retention.bytes.reclaimed", "reason", "global-quota").count());
+    }
+
+    @Test
+    void testArtifactThatCannotBeDeletedIsKept() throws Exception {
+        completed("EXP_OLD", "alice", 100, 40);
+        doThrow(new IOException("busy")).when(artifactStore).delete("EXP_OLD.csv");
+
+        sweeper.sweep();
+
+        assertTrue(expired().isEmpty());
+    }
+
+    @Test
+    void testExportExpiredByAnotherInstanceIsNotCountedTwice() throws Exception {
+        ExportHistory old = completed("EXP_OLD", "alice", 100, 40);
+        completed("EXP_OLDER", "bob", 50, 60);
+        // Another instance's sweep marks EXP_OLD while this one is deleting its artifact
+        doAnswer(invocation -> exportHistoryRepository.markExpired(List.of(old.getId()), LocalDateTime.now()))
+                .when(artifactStore).delete("EXP_OLD.csv");
+
+        sweeper.sweep();
+
+        assertEquals(List.of("EXP_OLD", "EXP_OLDER"), expired());
+        assertEquals(1.0, meterRegistry.counter("export.retention.rows.reclaimed", "reason", "age").count());
+        assertEquals(50.0, meterRegistry.counter("export.retention.bytes.reclaimed", "reason", "age").count());
+    }
+
+    private ExportHistory completed(String referenceId, String userId, long size, int daysAgo) {
+        ExportHistory export = new ExportHistory(referenceId, ExportHistory.ExportType.CSV, "{}", "id");
+        export.setUserId(userId);
+        export.setStatus(ExportHistory.ExportStatus.COMPLETED);
+        export.setFilePath(referenceId + ".csv");
+        export.setFileSize(size);
+        export.setCompletedAt(LocalDateTime.now().minusDays(daysAgo));
+        return exportHistoryRepository.save(export);
+    }
+
+    private List<String> expired() {
+        return exportHistoryRepository.findAll().stream()
+                .filter(export -> export.getExpiredAt() != null)
+                .map(ExportHistory::getReferenceId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.ExportHistory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportStatusRegistryTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private ExportStatusRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ExportStatusRegistry(clock::get);
+        ReflectionTestUtils.setField(registry, "gracePeriod", Duration.ofMinutes(10));
+    }
+
+    @Test
+    void testRunningExportIsKeptUntilItFinishes() {
+        registry.update(export("EXP_1", ExportHistory.ExportStatus.PROCESSING));
+        clock.set(Duration.ofHours(1).toNanos());
+        registry.evictExpired();
+
+        assertEquals(ExportHistory.ExportStatus.PROCESSING, registry.get("EXP_1").orElseThrow().getStatus());
+    }
+
+    @Test
+    void testFinishedExportIsEvictedAfterGracePeriod() {
+        registry.update(export("EXP_1", ExportHistory.ExportStatus.COMPLETED));
+
+        clock.set(Duration.ofMinutes(9).toNanos());
+        registry.evictExpired();
+        assertTrue(registry.get("EXP_1").isPresent());
+
+        clock.set(Duration.ofMinutes(11).toNanos());
+        registry.evictExpired();
+        assertTrue(registry.get("EXP_1").isEmpty());
+    }
+
+    @Test
+    void testStoppedJobOnlyDropsUnfinishedState() {
+        registry.update(export("EXP_1", ExportHistory.ExportStatus.PROCESSING));
+        registry.update(export("EXP_2", ExportHistory.ExportStatus.FAILED));
+
+        registry.forgetUnfinished("EXP_1");
+        registry.forgetUnfinished("EXP_2");
+
+        assertTrue(registry.get("EXP_1").isEmpty());
+        assertEquals(ExportHistory.ExportStatus.FAILED, registry.get("EXP_2").orElseThrow().getStatus());
+        assertEquals(1, registry.size());
+    }
+
+    private static ExportHistory export(String referenceId, ExportHistory.ExportStatus status) {
+        ExportHistory export = new ExportHistory(referenceId, ExportHistory.ExportType.CSV, null, null);
+        export.setStatus(status);
+        return export;
+    }
+}
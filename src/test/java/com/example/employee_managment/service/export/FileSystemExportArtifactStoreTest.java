@@ -0,0 +1,130 @@
+package com.example.employee_managment.service.export;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemExportArtifactStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileSystemExportArtifactStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileSystemExportArtifactStore(tempDir.toString());
+    }
+
+    @Test
+    void testCommitPublishesArtifactWithSizeAndChecksum() throws Exception {
+        // Arrange
+        byte[] content = "ID,First Name\n\"1\",\"John\"\n".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        StoredArtifact artifact;
+        try (ExportArtifactStore.ArtifactWriter writer = store.create("EXP_TEST1")) {
+            writer.getOutputStream().write(content);
+            artifact = writer.commit();
+        }
+
+        // Assert
+        assertEquals("EXP_TEST1.csv", artifact.getLocation());
+        assertEquals(content.length, artifact.getSize());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)), artifact.getChecksum());
+        assertTrue(store.exists(artifact.getLocation()));
+
+        Resource resource = store.load(artifact.getLocation());
+        assertArrayEquals(content, resource.getContentAsByteArray());
+    }
+
+    @Test
+    void testUncommittedArtifactIsDiscarded() throws Exception {
+        // Act
+        try (ExportArtifactStore.ArtifactWriter writer = store.create("EXP_TEST2")) {
+            writer.getOutputStream().write("partial".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Assert
+        assertFalse(store.exists("EXP_TEST2.csv"));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testResumeContinuesPartialArtifactFromOffset() throws Exception {
+        // Arrange: an interrupted export wrote past its last checkpoint at offset 14
+        try (ExportArtifactStore.ArtifactWriter writer = store.create("EXP_TEST4")) {
+            writer.getOutputStream().write("ID,First Name\n\"1\",\"Jo".getBytes(StandardCharsets.UTF_8));
+            writer.keepPartial();
+        }
+        byte[] content = "ID,First Name\n\"1\",\"John\"\n".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        StoredArtifact artifact;
+        try (ExportArtifactStore.ArtifactWriter writer = store.resume("EXP_TEST4", 14).orElseThrow()) {
+            writer.getOutputStream().write("\"1\",\"John\"\n".getBytes(StandardCharsets.UTF_8));
+            artifact = writer.commit();
+        }
+
+        // Assert
+        assertArrayEquals(content, store.load(artifact.getLocation()).getContentAsByteArray());
+        assertEquals(content.length, artifact.getSize());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)), artifact.getChecksum());
+    }
+
+    @Test
+    void testResumeWithoutPartialArtifactIsEmpty() throws Exception {
+        // Arrange
+        try (ExportArtifactStore.ArtifactWriter writer = store.create("EXP_TEST5")) {
+            writer.getOutputStream().write("short".getBytes(StandardCharsets.UTF_8));
+            writer.keepPartial();
+        }
+
+        // Act & Assert
+        assertTrue(store.resume("EXP_MISSING", 0).isEmpty());
+        assertTrue(store.resume("EXP_TEST5", 100).isEmpty());
+    }
+
+    @Test
+    void testDeleteRemovesArtifact() throws Exception {
+        // Arrange
+        StoredArtifact artifact;
+        try (ExportArtifactStore.ArtifactWriter writer = store.create("EXP_TEST3")) {
+            writer.getOutputStream().write(1);
+            artifact = writer.commit();
+        }
+
+        // Act
+        store.delete(artifact.getLocation());
+
+        // Assert
+        assertFalse(store.exists(artifact.getLocation()));
+        assertThrows(IOException.class, () -> store.load(artifact.getLocation()));
+    }
+
+    @Test
+    void testRejectsLocationOutsideBaseDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> store.load("../outside.csv"));
+    }
+
+    @Test
+    void testMultipleInstancesRequireAnExistingSharedDirectory() {
+        assertThrows(IllegalStateException.class, () -> new FileSystemExportArtifactStore("", true));
+        assertThrows(IllegalStateException.class,
+                () -> new FileSystemExportArtifactStore(tempDir.resolve("not-mounted").toString(), true));
+        assertDoesNotThrow(() -> new FileSystemExportArtifactStore(tempDir.toString(), true));
+        assertDoesNotThrow(() -> new FileSystemExportArtifactStore("", false));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.employee_managment.service.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GzipMemberOutputStreamTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMembersDecompressToConcatenatedContent() throws Exception {
+        ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        GzipMemberOutputStream gzip = new GzipMemberOutputStream(stored);
+
+        gzip.write("ID,First Name\n".getBytes(StandardCharsets.UTF_8));
+        gzip.endMember();
+        gzip.write("\"1\",\"John\"\n".getBytes(StandardCharsets.UTF_8));
+        gzip.finish();
+
+        assertEquals("ID,First Name\n\"1\",\"John\"\n", gunzip(stored.toByteArray()));
+    }
+
+    @Test
+    void testEmptyArtifactIsValidGzip() throws Exception {
+        ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        new GzipMemberOutputStream(stored).finish();
+
+        assertEquals("", gunzip(stored.toByteArray()));
+    }
+
+    @Test
+    void testCompressedArtifactResumesAtMemberBoundary() throws Exception {
+        FileSystemExportArtifactStore store = new FileSystemExportArtifactStore(tempDir.toString());
+
+        // An interrupted export ended a member at its checkpoint, then wrote part of the next one
+        long checkpoint;
+        try (ExportArtifactStore.ArtifactWriter writer = store.create("EXP_GZ", true)) {
+            CountingStream counted = new CountingStream(writer.getOutputStream());
+            GzipMemberOutputStream gzip = new GzipMemberOutputStream(counted);
+            gzip.write("ID,First Name\n\"1\",\"John\"\n".getBytes(StandardCharsets.UTF_8));
+            gzip.endMember();
+            checkpoint = counted.count;
+            gzip.write("\"2\",\"Ja".getBytes(StandardCharsets.UTF_8));
+            gzip.flush();
+            writer.keepPartial();
+        }
+
+        StoredArtifact artifact;
+        try (ExportArtifactStore.ArtifactWriter writer = store.resume("EXP_GZ", checkpoint, true).orElseThrow()) {
+            GzipMemberOutputStream gzip = new GzipMemberOutputStream(writer.getOutputStream());
+            gzip.write("\"2\",\"Jane\"\n".getBytes(StandardCharsets.UTF_8));
+            gzip.finish();
+            artifact = writer.commit();
+        }
+
+        assertEquals("EXP_GZ.csv.gz", artifact.getLocation());
+        assertTrue(store.isCompressed(artifact.getLocation()));
+        assertEquals("ID,First Name\n\"1\",\"John\"\n\"2\",\"Jane\"\n",
+                gunzip(Files.readAllBytes(tempDir.resolve(artifact.getLocation()))));
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class CountingStream extends OutputStream {
+        private final OutputStream out;
+        private long count;
+
+        CountingStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
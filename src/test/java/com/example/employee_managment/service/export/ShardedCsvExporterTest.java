@@ -0,0 +1,152 @@
+package com.example.employee_managment.service.export;
+
+import com.example.employee_managment.model.Employee;
+import com.example.employee_managment.repository.EmployeeRepository;
+import com.example.employee_managment.repository.EmployeeSpecifications;
+import com.example.employee_managment.service.encryption.EncryptionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Range;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Shards read on their own threads and connections, so rows must be committed rather than rolled back per test
+@DataJpaTest(properties = "spring.liquibase.enabled=false")
+@ActiveProfiles("test")
+@Import({ShardedCsvExporter.class, EncryptionService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardedCsvExporterTest {
+
+    @Autowired
+    private ShardedCsvExporter shardedCsvExporter;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            Employee employee = new Employee("First" + i, "Last" + i, "user" + i + "@example.com");
+            employee.setDepartment(i % 3 == 0 ? "Engineering" : "Product");
+            employee.setSalary(50000.0 + i * 100);
+            employees.add(employee);
+        }
+        List<Employee> saved = employeeRepository.saveAll(employees);
+
+        // Leave gaps in the id space so shards hold different numbers of rows
+        employeeRepository.deleteAllInBatch(saved.subList(5, 17));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(shardedCsvExporter, "chunkSize", 50000L);
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testShardedOutputMatchesSingleShard() throws IOException {
+        CsvRowEncoder encoder = CsvRowEncoder.compile("firstName,salary");
+
+        String single = export(EmployeeSpecifications.all(), encoder, 1);
+        String sharded = export(EmployeeSpecifications.all(), encoder, 4);
+
+        assertEquals(single, sharded);
+        assertEquals(29, sharded.split("\n").length);
+        assertTrue(sharded.startsWith("First Name,Salary\n\"First1\",\"50100.00\"\n"));
+        assertTrue(sharded.endsWith("\"First40\",\"54000.00\"\n"));
+    }
+
+    @Test
+    void testShardsApplyFilters() throws IOException {
+        CsvRowEncoder encoder = CsvRowEncoder.compile("id,department");
+
+        String csv = export(EmployeeSpecifications.hasDepartment("Engineering"), encoder, 3);
+
+        // Engineering rows 3, 6, ..., 39 minus the deleted 6..17
+        assertEquals(1 + 9, csv.split("\n").length);
+        assertFalse(csv.contains("Product"));
+    }
+
+    @Test
+    void testNoMatchesWritesHeaderOnly() throws IOException {
+        String csv = export(EmployeeSpecifications.hasDepartment("Sales"), CsvRowEncoder.compile("id"), 4);
+
+        assertEquals("ID\n", csv);
+    }
+
+    @Test
+    void testCancelledExportStopsWithoutWritingRows() {
+        ExportProgress progress = new ExportProgress();
+        progress.cancel("Export cancelled by user");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(ExportCancelledException.class, () ->
+                shardedCsvExporter.write(EmployeeSpecifications.all(), CsvRowEncoder.compile("id"), 4, out, progress));
+
+        assertEquals("ID\n", out.toString(StandardCharsets.UTF_8));
+        assertEquals(0, progress.getRowsWritten());
+    }
+
+    @Test
+    void testResumeFromCheckpointCompletesExport() throws IOException {
+        ReflectionTestUtils.setField(shardedCsvExporter, "chunkSize", 5L);
+        CsvRowEncoder encoder = CsvRowEncoder.compile("id,firstName");
+
+        // Record the output length at every checkpoint of a full export
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        List<long[]> checkpoints = new ArrayList<>();
+        long rows = shardedCsvExporter.write(EmployeeSpecifications.all(), encoder, 2, full, new ExportProgress(), null,
+                (lastId, rowsWritten) -> checkpoints.add(new long[] {lastId, rowsWritten, full.size()}));
+        assertEquals(28, rows);
+        assertEquals(8, checkpoints.size());
+
+        // Continue from a checkpoint in the middle, as if the export had been interrupted there
+        long[] checkpoint = checkpoints.get(3);
+        ByteArrayOutputStream resumed = new ByteArrayOutputStream();
+        resumed.write(full.toByteArray(), 0, (int) checkpoint[2]);
+        long remaining = shardedCsvExporter.write(EmployeeSpecifications.all(), encoder, 2, resumed, new ExportProgress(),
+                checkpoint[0], (lastId, rowsWritten) -> { });
+
+        assertEquals(28, checkpoint[1] + remaining);
+        assertEquals(full.toString(StandardCharsets.UTF_8), resumed.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testSplitCoversRangeWithoutOverlap() {
+        List<Range<Long>> shards = ShardedCsvExporter.split(Range.closed(10L, 20L), 4);
+
+        assertEquals(List.of(Range.closed(10L, 12L), Range.closed(13L, 15L), Range.closed(16L, 18L), Range.closed(19L, 20L)), shards);
+        assertEquals(List.of(Range.closed(5L, 5L), Range.closed(6L, 6L)), ShardedCsvExporter.split(Range.closed(5L, 6L), 8));
+    }
+
+    @Test
+    void testChunkCountIsBoundedPerShard() {
+        assertEquals(4, shardedCsvExporter.chunkCount(Range.closed(1L, 10L), 4));
+        assertEquals(3, shardedCsvExporter.chunkCount(Range.closed(1L, 150000L), 2));
+        // A few rows spread over a huge id range must not turn into millions of empty chunks
+        assertEquals(2 * 64, shardedCsvExporter.chunkCount(Range.closed(1L, Long.MAX_VALUE / 2), 2));
+    }
+
+    private String export(Specification<Employee> filters, CsvRowEncoder encoder,
+                          int shards) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        shardedCsvExporter.write(filters, encoder, shards, out, new ExportProgress());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}